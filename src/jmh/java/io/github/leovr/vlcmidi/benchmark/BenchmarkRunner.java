@@ -0,0 +1,70 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+public class BenchmarkRunner {
+
+    private static final String ALLOCATION_RATE = "·gc.alloc.rate.norm";
+
+    public static void main(final String[] args) throws RunnerException {
+        final long maxLatencyNs = Long.getLong("benchmark.maxLatencyNs", 0);
+        final long maxAllocationBytes = Long.getLong("benchmark.maxAllocationBytes", -1);
+
+        final Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        final Collection<RunResult> results = new Runner(options).run();
+
+        boolean failed = false;
+        for (final RunResult result : results) {
+            final String benchmark = describe(result);
+            if (maxLatencyNs > 0 && result.getParams().getMode() == Mode.SampleTime) {
+                final double latencyNs = toNanos(result.getPrimaryResult());
+                if (latencyNs > maxLatencyNs) {
+                    System.err.printf("%s: %.1f ns/op exceeds %d ns/op%n", benchmark, latencyNs, maxLatencyNs);
+                    failed = true;
+                }
+            }
+            final Result allocation = result.getSecondaryResults().get(ALLOCATION_RATE);
+            if (maxAllocationBytes >= 0 && allocation != null && allocation.getScore() > maxAllocationBytes) {
+                System.err.printf("%s: %.1f B/op exceeds %d B/op%n", benchmark, allocation.getScore(),
+                        maxAllocationBytes);
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static String describe(final RunResult result) {
+        final StringBuilder description = new StringBuilder(result.getParams().getBenchmark());
+        description.append(" [").append(result.getParams().getMode().shortLabel());
+        for (final String key : result.getParams().getParamsKeys()) {
+            description.append(", ").append(key).append('=').append(result.getParams().getParam(key));
+        }
+        return description.append(']').toString();
+    }
+
+    private static double toNanos(final Result result) {
+        final String unit = result.getScoreUnit();
+        if (unit.startsWith("us")) {
+            return result.getScore() * TimeUnit.MICROSECONDS.toNanos(1);
+        }
+        if (unit.startsWith("ms")) {
+            return result.getScore() * TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        return result.getScore();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import io.github.leovr.vlcmidi.ClipIndexTable;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClipIndexTableBenchmark {
+
+    private static final int STREAM_LENGTH = 1024;
+
+    @Param({"16", "128", "2048"})
+    private int mappingCount;
+
+    private final ClipIndexTable table = new ClipIndexTable();
+    private final int[] channels = new int[STREAM_LENGTH];
+    private final int[] notes = new int[STREAM_LENGTH];
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < mappingCount; i++) {
+            final int noteNumber = i % 120;
+            table.put(MidiNote.fromNoteNumber((i / 120) % 16, noteNumber, true), i);
+        }
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            channels[i] = random.nextInt(16);
+            notes[i] = random.nextInt(128);
+        }
+    }
+
+    @Benchmark
+    public int lookup() {
+        final int index = position;
+        position = (position + 1) & (STREAM_LENGTH - 1);
+        return table.clipIndex(channels[index], notes[index]);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteEventListener;
+import io.github.leovr.vlcmidi.midi.MidiNoteListenerAdapter;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.ShortMessage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MidiNoteReceiverBenchmark {
+
+    private static final int STREAM_LENGTH = 1024;
+
+    @Param({"1", "4", "16"})
+    private int listenerCount;
+
+    private final ShortMessage[] stream = new ShortMessage[STREAM_LENGTH];
+    private MidiNoteReceiver receiver;
+    private MidiNoteReceiver legacyReceiver;
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp(final Blackhole blackhole) throws InvalidMidiDataException {
+        final Random random = new Random(42);
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            final int channel = random.nextInt(16);
+            final int note = random.nextInt(128);
+            switch (random.nextInt(5)) {
+                case 0:
+                    stream[i] = new ShortMessage(ShortMessage.CONTROL_CHANGE, channel, random.nextInt(128),
+                            random.nextInt(128));
+                    break;
+                case 1:
+                case 2:
+                    stream[i] = new ShortMessage(ShortMessage.NOTE_ON, channel, note, 100);
+                    break;
+                default:
+                    stream[i] = new ShortMessage(ShortMessage.NOTE_OFF, channel, note, 0);
+                    break;
+            }
+        }
+
+        receiver = new MidiNoteReceiver();
+        legacyReceiver = new MidiNoteReceiver();
+        for (int i = 0; i < listenerCount; i++) {
+            receiver.registerMidiNoteEventListener(new MidiNoteEventListener() {
+                @Override
+                public void onNoteStart(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+                    blackhole.consume(noteNumber);
+                }
+
+                @Override
+                public void onNoteEnd(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+                    blackhole.consume(noteNumber);
+                }
+            });
+            legacyReceiver.registerMidiNoteListener(new MidiNoteListenerAdapter() {
+                @Override
+                public void onMidiNote(final MidiNote midiNote) {
+                    blackhole.consume(midiNote);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void send() {
+        receiver.send(next(), -1);
+    }
+
+    @Benchmark
+    public void sendThroughMidiNoteListener() {
+        legacyReceiver.send(next(), -1);
+    }
+
+    private ShortMessage next() {
+        final ShortMessage message = stream[position];
+        position = (position + 1) & (STREAM_LENGTH - 1);
+        return message;
+    }
+}
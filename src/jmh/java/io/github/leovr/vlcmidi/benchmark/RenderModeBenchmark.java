@@ -0,0 +1,99 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import com.beust.jcommander.JCommander;
+import io.github.leovr.vlcmidi.Options;
+import io.github.leovr.vlcmidi.PlayerControlThread;
+import io.github.leovr.vlcmidi.RenderMode;
+import io.github.leovr.vlcmidi.TriggerEngine;
+import io.github.leovr.vlcmidi.VideoMidiNoteMapping;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.playback.VlcjPlaybackBackend;
+
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import java.awt.CardLayout;
+import java.awt.Color;
+import java.awt.event.KeyAdapter;
+import java.awt.event.MouseAdapter;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RenderModeBenchmark {
+
+    private static final String BLACK_PANEL = "blackPanel";
+    private static final long DURATION_MILLIS = Long.getLong("benchmark.durationMillis", 30000);
+    private static final long CUT_INTERVAL_MILLIS = Long.getLong("benchmark.cutIntervalMillis", 2000);
+    private static final long PRIME_MILLIS = 100;
+
+    public static void main(final String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: RenderModeBenchmark <video file>...");
+            System.exit(1);
+        }
+        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            mappings.add(new VideoMidiNoteMapping(new File(args[i]), MidiNote.fromNoteNumber(0, i, true)));
+        }
+        for (final RenderMode renderMode : RenderMode.values()) {
+            run(renderMode, mappings);
+        }
+        System.exit(0);
+    }
+
+    private static void run(final RenderMode renderMode, final List<VideoMidiNoteMapping> mappings)
+            throws InterruptedException {
+        final Options options = new Options();
+        new JCommander(options, "--render-mode", renderMode.name(), "--poster-cache", "0",
+                "--page-cache-budget", "0");
+
+        final JFrame frame = new JFrame("Render mode benchmark " + renderMode);
+        frame.setBounds(0, 0, 1280, 720);
+        final CardLayout cardLayout = new CardLayout();
+        frame.getContentPane().setLayout(cardLayout);
+        final JPanel blackPanel = new JPanel();
+        blackPanel.setBackground(Color.BLACK);
+        frame.getContentPane().add(blackPanel, BLACK_PANEL);
+
+        final TriggerLatencyRecorder latencyRecorder = new TriggerLatencyRecorder();
+        final VlcjPlaybackBackend backend = new VlcjPlaybackBackend(options, frame.getContentPane(), cardLayout,
+                BLACK_PANEL, latencyRecorder, new KeyAdapter() {
+        }, new MouseAdapter() {
+        });
+        final TriggerEngine triggerEngine = new TriggerEngine(backend, latencyRecorder, options);
+        frame.setVisible(true);
+        triggerEngine.load(mappings, Collections.emptyList());
+        final PlayerControlThread playerControlThread = triggerEngine.getPlayerControlThread();
+
+        final com.sun.management.OperatingSystemMXBean operatingSystem =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        final long startCpuNanos = operatingSystem.getProcessCpuTime();
+        final long startNanos = System.nanoTime();
+        int clip = 0;
+        while (System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS)) {
+            playerControlThread.prime(clip);
+            Thread.sleep(PRIME_MILLIS);
+            playerControlThread.cut(clip, PlayerControlThread.IMMEDIATE);
+            Thread.sleep(CUT_INTERVAL_MILLIS);
+            clip = (clip + 1) % mappings.size();
+        }
+        final long cpuNanos = operatingSystem.getProcessCpuTime() - startCpuNanos;
+        final long wallNanos = System.nanoTime() - startNanos;
+
+        System.out.printf("%n%s: CPU %.1f%% of one core (%d cores)%n", renderMode, 100.0 * cpuNanos / wallNanos,
+                Runtime.getRuntime().availableProcessors());
+        System.out.println(triggerEngine.latencyReport());
+        if (backend.getRenderStatistics() != null) {
+            System.out.println(backend.getRenderStatistics().report());
+        } else {
+            System.out.println("Frames: presented by the native window, not measurable");
+        }
+        triggerEngine.shutdown();
+        backend.release();
+        frame.dispose();
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import com.beust.jcommander.JCommander;
+import io.github.leovr.vlcmidi.Options;
+import io.github.leovr.vlcmidi.OverflowPolicy;
+import io.github.leovr.vlcmidi.PlayerControlThread;
+import io.github.leovr.vlcmidi.TriggerEngine;
+import io.github.leovr.vlcmidi.VideoMidiNoteMapping;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import io.github.leovr.vlcmidi.midi.VirtualMidiTransmitter;
+import io.github.leovr.vlcmidi.playback.SimulatedPlaybackBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulatedTriggerBenchmark {
+
+    private static final int CLIPS = 64;
+
+    @Param({"0", "200"})
+    private long callDelayMicros;
+
+    @Param({"0", "20000"})
+    private long openDelayMicros;
+
+    @Param({"LATEST_WINS", "DROP_OLDEST"})
+    private OverflowPolicy overflowPolicy;
+
+    private final VirtualMidiTransmitter transmitter = new VirtualMidiTransmitter();
+    private SimulatedPlaybackBackend backend;
+    private TriggerEngine triggerEngine;
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final TriggerLatencyRecorder latencyRecorder = new TriggerLatencyRecorder();
+        backend = new SimulatedPlaybackBackend(TimeUnit.MICROSECONDS.toNanos(callDelayMicros),
+                TimeUnit.MICROSECONDS.toNanos(openDelayMicros), TimeUnit.MILLISECONDS.toNanos(2), latencyRecorder);
+        final Options options = new Options();
+        new JCommander(options, "--overflow-policy", overflowPolicy.name());
+        triggerEngine = new TriggerEngine(backend, latencyRecorder, options);
+
+        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+        for (int i = 0; i < CLIPS; i++) {
+            mappings.add(new VideoMidiNoteMapping(new File("clip" + i + ".mp4"), MidiNote.fromNoteNumber(0, i, true)));
+        }
+        triggerEngine.load(mappings, Collections.emptyList());
+
+        final MidiNoteReceiver receiver = new MidiNoteReceiver();
+        triggerEngine.register(receiver);
+        transmitter.setReceiver(receiver);
+    }
+
+    @Benchmark
+    public void trigger() {
+        transmitter.trigger(0, position);
+        position = (position + 1) % CLIPS;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        final PlayerControlThread playerControlThread = triggerEngine.getPlayerControlThread();
+        System.out.printf("%n%d played, %d first frames, %d coalesced, %d dropped%n", backend.getPlayed(),
+                backend.getFirstFrames(), playerControlThread.getCoalesced(), playerControlThread.getDropped());
+        System.out.println(triggerEngine.latencyReport());
+        triggerEngine.shutdown();
+        backend.release();
+    }
+}
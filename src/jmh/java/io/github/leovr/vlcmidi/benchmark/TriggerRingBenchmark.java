@@ -0,0 +1,50 @@
+package io.github.leovr.vlcmidi.benchmark;
+
+import io.github.leovr.vlcmidi.TriggerRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriggerRingBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int burstLength;
+
+    private TriggerRing ring;
+    private int[] events;
+    private long[] timestamps;
+    private long[] dueTimes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ring = new TriggerRing(64);
+        events = new int[ring.capacity()];
+        timestamps = new long[ring.capacity()];
+        dueTimes = new long[ring.capacity()];
+    }
+
+    @Benchmark
+    public int offerAndDrain() {
+        for (int i = 0; i < burstLength; i++) {
+            ring.offer(i, i, 0);
+        }
+        return ring.drainTo(events, timestamps, dueTimes);
+    }
+}
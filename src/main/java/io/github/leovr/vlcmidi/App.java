@@ -2,18 +2,18 @@ package io.github.leovr.vlcmidi;
 
 import com.beust.jcommander.JCommander;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.leovr.vlcmidi.midi.MidiDevices;
 import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.probe.MediaInfo;
+import io.github.leovr.vlcmidi.probe.MediaProber;
 import lombok.extern.slf4j.Slf4j;
 import uk.co.caprica.vlcj.factory.discovery.NativeDiscovery;
 
-import javax.jmdns.JmDNS;
-import javax.jmdns.ServiceInfo;
 import javax.sound.midi.MidiDevice;
-import javax.sound.midi.MidiSystem;
-import javax.sound.midi.MidiUnavailableException;
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.DefaultCellEditor;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.GroupLayout;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -21,6 +21,7 @@ import javax.swing.JComponent;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
@@ -35,7 +36,7 @@ import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.WindowConstants;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import java.awt.Color;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
@@ -43,15 +44,17 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
-import java.net.Inet4Address;
-import java.net.InetAddress;
-import java.net.NetworkInterface;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -63,15 +66,27 @@ public class App extends JFrame {
     private JPanel midiPortPanel;
     private JPanel videoFilesPanel;
     private JPanel bottomPanel;
+    private JButton startButton;
+    private JButton applyButton;
     private static final MidiNote[] AVAILABLE_MIDI_NOTES = buildAvailableMidiNotes();
-    private DefaultTableModel tableModel;
-    private VlcMidiPreferences preferences;
+    private VideoMidiNoteTableModel tableModel;
+    private final VlcMidiPreferences preferences = new VlcMidiPreferences();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Options options;
-    private JmDNS jmdns;
+    private final BonjourAdvertiser bonjourAdvertiser;
+    private List<MidiNote> setlist = new ArrayList<>();
+    private File saveFileLocation;
+    private VideoPlayer videoPlayer;
+    private final StartupTimer startupTimer = new StartupTimer();
+    private final CompletableFuture<Boolean> libvlcDiscovery = new CompletableFuture<>();
+    private final MediaProber mediaProber;
+    private final Queue<MediaInfo> probedMediaInfos = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean probeUpdateScheduled = new AtomicBoolean();
 
     public App(final Options options) {
         this.options = options;
+        bonjourAdvertiser = new BonjourAdvertiser(options);
+        mediaProber = new MediaProber(options.getMediaInfoCache(), libvlcDiscovery);
     }
 
     private static MidiNote[] buildAvailableMidiNotes() {
@@ -81,93 +96,102 @@ public class App extends JFrame {
     }
 
     public static void main(final String[] args) {
-        new NativeDiscovery().discover();
         final Options options = new Options();
         new JCommander(options, args);
+        if (options.isKiosk()) {
+            new Kiosk(options).run();
+            return;
+        }
         final App app = new App(options);
         SwingUtilities.invokeLater(app::start);
+        app.startBackgroundTasks();
+    }
+
+    private void startBackgroundTasks() {
+        final ExecutorService startupExecutor = Executors.newFixedThreadPool(4, runnable -> {
+            final Thread thread = new Thread(runnable, "startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final CompletableFuture<Boolean> discovery = CompletableFuture
+                .supplyAsync(startupTimer.time("libvlc discovery", () -> new NativeDiscovery().discover()),
+                        startupExecutor);
+        discovery.whenComplete((found, throwable) -> {
+            if (throwable != null) {
+                libvlcDiscovery.completeExceptionally(throwable);
+            } else {
+                libvlcDiscovery.complete(found);
+            }
+        });
+        discovery.thenAcceptAsync(found -> {
+            if (!found) {
+                log.warn("Could not discover the native libvlc libraries");
+            }
+            startButton.setEnabled(true);
+        }, SwingUtilities::invokeLater);
+
+        final CompletableFuture<List<MidiDevice.Info>> midiDevices = CompletableFuture
+                .supplyAsync(startupTimer.time("MIDI device enumeration", this::findMidiDevices), startupExecutor);
+        midiDevices.thenAcceptAsync(deviceInfos -> fillMidi(deviceInfos,
+                Optional.ofNullable(options.getMidiPort()).orElseGet(preferences::getMidiPort)),
+                SwingUtilities::invokeLater);
+
+        final CompletableFuture<Void> bonjour =
+                CompletableFuture.runAsync(startupTimer.time("JmDNS registration", bonjourAdvertiser::start),
+                        startupExecutor);
+
+        final CompletableFuture<Optional<VlcMidiSaveFile>> saveFile = CompletableFuture.supplyAsync(
+                startupTimer.time("save file", () -> options.getVideoMappings().stream().findFirst()
+                        .flatMap(filename -> VlcMidiSaveFile.read(objectMapper, new File(filename)))),
+                startupExecutor);
+        saveFile.thenAcceptAsync(loaded -> loaded.ifPresent(read -> {
+            saveFileLocation = new File(options.getVideoMappings().get(0));
+            applySaveFile(read);
+        }), SwingUtilities::invokeLater);
+
+        CompletableFuture.allOf(discovery, midiDevices, bonjour, saveFile).whenCompleteAsync((ignored, throwable) -> {
+            startupExecutor.shutdown();
+            if (throwable != null) {
+                log.error("Startup failed", throwable);
+                return;
+            }
+            log.info(startupTimer.breakdown());
+            if (saveFile.join().isPresent()) {
+                final List<VideoMidiNoteMapping> mappings = tableModel.getAssignedMappings();
+                if (!mappings.isEmpty()) {
+                    startVideo(mappings, (MidiDevice.Info) midiPortComboBox.getSelectedItem());
+                }
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     private void start() {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(final WindowEvent e) {
-                if (options.isBonjour() && jmdns != null) {
-                    jmdns.unregisterAllServices();
-                }
+                bonjourAdvertiser.stop();
+                mediaProber.release();
             }
         });
 
-        initComponents();
-
-        preferences = new VlcMidiPreferences();
-
-        fillMidi(preferences.getMidiPort());
-
-        startBonjour();
+        startupTimer.time("user interface", this::initComponents).run();
 
         setVisible(true);
 
-        if (!options.getVideoMappings().isEmpty()) {
-            final String firstFilename = options.getVideoMappings().get(0);
-            final boolean successful = loadVideoList(new File(firstFilename));
-            if (successful) {
-                final List<VideoMidiNoteMapping> mappings = getValidVideoMidiNoteMappings();
-                if (!mappings.isEmpty()) {
-                    startVideo(mappings, (MidiDevice.Info) midiPortComboBox.getSelectedItem());
-                }
-            }
-        }
-
     }
 
 
-    private void startBonjour() {
-        if (!options.isBonjour()) {
-            return;
-        }
-        try {
-            final String interfaceName = Optional.ofNullable(options.getNetworkInterfaceName()).orElse("");
-            final InetAddress jmDnsInetAddress = Collections.list(NetworkInterface.getNetworkInterfaces()).stream()
-                    .filter(networkInterface -> networkInterface.getName().equals(interfaceName)).findFirst().flatMap(
-                            networkInterface -> Collections.list(networkInterface.getInetAddresses()).stream()
-                                    .filter(inetAddress -> inetAddress instanceof Inet4Address).findFirst())
-                    .orElseGet(() -> {
-                        try {
-                            return InetAddress.getLocalHost();
-                        } catch (final UnknownHostException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-
-            jmdns = JmDNS.create(jmDnsInetAddress);
-            final ServiceInfo serviceInfo =
-                    ServiceInfo.create("_apple-midi._udp.local.", "VLC MIDI Player", 50004, "apple-midi");
-            jmdns.registerService(serviceInfo);
-        } catch (final IOException e) {
-            log.error("IOException creating JmDNS", e);
+    private List<MidiDevice.Info> findMidiDevices() {
+        if (options.isBonjour()) {
+            return Collections.emptyList();
         }
-
+        return MidiDevices.inputs();
     }
 
-    private void fillMidi(final String lastMidiPort) {
-        if (options.isBonjour()) {
-            return;
-        }
-        final MidiDevice.Info[] deviceInfos = MidiSystem.getMidiDeviceInfo();
-        final List<MidiDevice.Info> deviceInfoList = Arrays.stream(deviceInfos).filter(info -> {
-            try {
-                return MidiSystem.getMidiDevice(info).getMaxTransmitters() != 0;
-            } catch (MidiUnavailableException e) {
-                log.error("Could not get MIDI device: {}", info);
-            }
-            return false;
-        }).collect(Collectors.toList());
+    private void fillMidi(final List<MidiDevice.Info> deviceInfoList, final String lastMidiPort) {
         deviceInfoList.forEach(midiPortComboBox::addItem);
-        if (lastMidiPort != null) {
-            deviceInfoList.stream().filter(info -> lastMidiPort.equals(info.getName())).findFirst()
-                    .ifPresent(midiPortComboBox::setSelectedItem);
-        }
+        MidiDevices.findInput(deviceInfoList, lastMidiPort).ifPresent(midiPortComboBox::setSelectedItem);
     }
 
     private void initComponents() {
@@ -240,24 +264,36 @@ public class App extends JFrame {
         }
     }
 
-    private boolean loadVideoList(final File loadDestination) {
-        if (!loadDestination.exists()) {
-            return false;
-        }
+    private void loadVideoList(final File loadDestination) {
+        VlcMidiSaveFile.read(objectMapper, loadDestination).ifPresent(read -> {
+            saveFileLocation = loadDestination;
+            applySaveFile(read);
+        });
+    }
 
-        try {
-            final VlcMidiSaveFile saveFile = objectMapper.readValue(loadDestination, VlcMidiSaveFile.class);
-            fillTableModel(saveFile.getMappings());
-            return true;
-        } catch (final IOException e) {
-            log.error("Could not read save file: {}", loadDestination, e);
-        }
-        return false;
+    private void applySaveFile(final VlcMidiSaveFile saveFile) {
+        tableModel.setMappings(saveFile.getMappings());
+        probeFiles(saveFile.getMappings().stream().map(VideoMidiNoteMapping::getFile).collect(Collectors.toList()));
+        setlist = Optional.ofNullable(saveFile.getSetlist()).orElseGet(ArrayList::new);
+    }
+
+    private void probeFiles(final List<File> files) {
+        mediaProber.probe(files, mediaInfo -> {
+            probedMediaInfos.add(mediaInfo);
+            if (probeUpdateScheduled.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::updateProbeStatus);
+            }
+        });
     }
 
-    private void fillTableModel(final List<VideoMidiNoteMapping> mappings) {
-        tableModel.getDataVector().removeAllElements();
-        mappings.forEach(mapping -> tableModel.addRow(new Object[]{mapping.getFile(), mapping.getMidiNote()}));
+    private void updateProbeStatus() {
+        probeUpdateScheduled.set(false);
+        final List<MediaInfo> mediaInfos = new ArrayList<>();
+        MediaInfo mediaInfo;
+        while ((mediaInfo = probedMediaInfos.poll()) != null) {
+            mediaInfos.add(mediaInfo);
+        }
+        tableModel.setMediaInfos(mediaInfos);
     }
 
     private void saveVideoList(final File saveDestination) {
@@ -265,9 +301,10 @@ public class App extends JFrame {
             return;
         }
 
-        final VlcMidiSaveFile saveFile = new VlcMidiSaveFile(getVideoMidiNoteMappings());
+        final VlcMidiSaveFile saveFile = new VlcMidiSaveFile(tableModel.getMappings(), setlist);
         try {
             objectMapper.writer().writeValue(saveDestination, saveFile);
+            saveFileLocation = saveDestination;
         } catch (final IOException e) {
             log.error("Could not write save file: {} to {}", saveFile, saveDestination, e);
         }
@@ -302,48 +339,35 @@ public class App extends JFrame {
         final JButton addVideosButton = new JButton();
         videoFilesPanel.setBorder(BorderFactory.createTitledBorder("Video Dateien"));
 
-        tableModel = new DefaultTableModel(new Object[][]{}, new String[]{"Video Datei", "MIDI Note"}) {
-            final Class[] types = new Class[]{File.class, MidiNote.class};
-            final boolean[] canEdit = new boolean[]{false, true};
-
-            public Class getColumnClass(final int columnIndex) {
-                return types[columnIndex];
-            }
-
-            public boolean isCellEditable(final int rowIndex, final int columnIndex) {
-                return canEdit[columnIndex];
-            }
-        };
+        tableModel = new VideoMidiNoteTableModel();
         videoFilesTable.setModel(tableModel);
-        videoFilesTable.setDefaultRenderer(MidiNote.class, new DefaultTableCellRenderer() {
+        final DefaultTableCellRenderer displayTextRenderer = new DefaultTableCellRenderer() {
             @Override
             public Component getTableCellRendererComponent(final JTable table, final Object value,
                                                            final boolean isSelected, final boolean hasFocus,
                                                            final int row, final int column) {
-                if (value == null) {
-                    setText("Nicht zugewiesen");
-                } else {
-                    final MidiNote midiNote = (MidiNote) value;
-                    setText(midiNote.getNote() + " " + midiNote.getOctave() + " Ch. " + (midiNote.getChannel() + 1));
+                final int modelRow = table.convertRowIndexToModel(row);
+                final int modelColumn = table.convertColumnIndexToModel(column);
+                super.getTableCellRendererComponent(table, tableModel.getDisplayText(modelRow, modelColumn),
+                        isSelected, hasFocus, row, column);
+                if (modelColumn == VideoMidiNoteTableModel.STATUS_COLUMN && !tableModel.isPlayable(modelRow)) {
+                    setForeground(Color.RED);
                 }
                 return this;
             }
-        });
-        videoFilesTable.setDefaultRenderer(File.class, new DefaultTableCellRenderer() {
+        };
+        videoFilesTable.setDefaultRenderer(File.class, displayTextRenderer);
+        videoFilesTable.setDefaultRenderer(MidiNote.class, displayTextRenderer);
+        videoFilesTable.setDefaultRenderer(MediaInfo.class, displayTextRenderer);
+        final JComboBox<MidiNote> midiNoteComboBox = new JComboBox<>(AVAILABLE_MIDI_NOTES);
+        midiNoteComboBox.setRenderer(new DefaultListCellRenderer() {
             @Override
-            public Component getTableCellRendererComponent(final JTable table, final Object value,
-                                                           final boolean isSelected, final boolean hasFocus,
-                                                           final int row, final int column) {
-                final File file = (File) value;
-                setText(file.getName());
-                setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
-                return this;
+            public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index,
+                                                          final boolean isSelected, final boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list,
+                        VideoMidiNoteTableModel.midiNoteText((MidiNote) value), index, isSelected, cellHasFocus);
             }
         });
-        final JComboBox<MidiNote> midiNoteComboBox = new JComboBox<>(AVAILABLE_MIDI_NOTES);
-        midiNoteComboBox.setRenderer(
-                (list, value, index, isSelected, cellHasFocus) -> value == null ? new JLabel("Nicht zugewiesen") :
-                        new JLabel(value.getNote() + " " + value.getOctave() + " Ch. " + (value.getChannel()) + 1));
         videoFilesTable.setDefaultEditor(MidiNote.class, new DefaultCellEditor(midiNoteComboBox));
         videoFilesTable.getTableHeader().setReorderingAllowed(false);
         videoFilesTable.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
@@ -351,13 +375,14 @@ public class App extends JFrame {
         videoFilesTable.getActionMap().put("deleteRow", new AbstractAction() {
             @Override
             public void actionPerformed(final ActionEvent e) {
-                Arrays.stream(videoFilesTable.getSelectedRows()).forEach(row -> tableModel.removeRow(row));
+                tableModel.removeRows(videoFilesTable.getSelectedRows());
             }
         });
         videoFilesScrollPanel.setViewportView(videoFilesTable);
         if (videoFilesTable.getColumnModel().getColumnCount() > 0) {
             videoFilesTable.getColumnModel().getColumn(0).setResizable(false);
             videoFilesTable.getColumnModel().getColumn(1).setResizable(false);
+            videoFilesTable.getColumnModel().getColumn(2).setResizable(false);
         }
 
         addVideosButton.setText("Video hinzufügen");
@@ -391,7 +416,9 @@ public class App extends JFrame {
     }
 
     private void addFiles(final File[] selectedFiles) {
-        Arrays.stream(selectedFiles).forEach(file -> tableModel.addRow(new Object[]{file, null}));
+        tableModel.addMappings(Arrays.stream(selectedFiles).map(file -> new VideoMidiNoteMapping(file, null))
+                .collect(Collectors.toList()));
+        probeFiles(Arrays.asList(selectedFiles));
     }
 
     private void initGeneralLayout() {
@@ -417,51 +444,57 @@ public class App extends JFrame {
 
     private void initBottomPanel() {
         bottomPanel = new JPanel();
-        final JButton startButton = new JButton();
+        startButton = new JButton();
         startButton.setText("Start");
+        startButton.setEnabled(false);
         startButton.addActionListener(e -> {
             if (tableModel.getRowCount() <= 0) {
                 return;
             }
-            final List<VideoMidiNoteMapping> mappings = getValidVideoMidiNoteMappings();
+            final List<VideoMidiNoteMapping> mappings = tableModel.getAssignedMappings();
             SwingUtilities
                     .invokeLater(() -> startVideo(mappings, (MidiDevice.Info) midiPortComboBox.getSelectedItem()));
         });
+        applyButton = new JButton();
+        applyButton.setText("Übernehmen");
+        applyButton.setToolTipText("Änderungen in die laufende Wiedergabe übernehmen");
+        applyButton.setEnabled(false);
+        applyButton.addActionListener(e -> {
+            final VideoPlayer runningVideoPlayer = videoPlayer;
+            if (runningVideoPlayer == null || runningVideoPlayer.isClosed()) {
+                return;
+            }
+            final List<VideoMidiNoteMapping> mappings = tableModel.getAssignedMappings();
+            final List<MidiNote> currentSetlist = setlist;
+            CompletableFuture.runAsync(() -> runningVideoPlayer.reload(mappings, currentSetlist));
+        });
 
         final GroupLayout bottomPanelLayout = new GroupLayout(bottomPanel);
         bottomPanel.setLayout(bottomPanelLayout);
         bottomPanelLayout.setHorizontalGroup(bottomPanelLayout.createParallelGroup(GroupLayout.Alignment.LEADING)
                 .addGroup(bottomPanelLayout.createSequentialGroup()
                         .addContainerGap(GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE).addComponent(startButton)
+                        .addPreferredGap(LayoutStyle.ComponentPlacement.RELATED).addComponent(applyButton)
                         .addContainerGap(GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)));
         bottomPanelLayout.setVerticalGroup(bottomPanelLayout.createParallelGroup(GroupLayout.Alignment.LEADING)
-                .addGroup(bottomPanelLayout.createSequentialGroup().addContainerGap().addComponent(startButton)
+                .addGroup(bottomPanelLayout.createSequentialGroup().addContainerGap()
+                        .addGroup(bottomPanelLayout.createParallelGroup(GroupLayout.Alignment.BASELINE)
+                                .addComponent(startButton).addComponent(applyButton))
                         .addContainerGap(GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)));
     }
 
-    private List<VideoMidiNoteMapping> getValidVideoMidiNoteMappings() {
-        return getVideoMidiNoteMappings().stream()
-                .filter(videoMidiNoteMapping -> videoMidiNoteMapping.getMidiNote() != null)
-                .collect(Collectors.toList());
-    }
-
-    private List<VideoMidiNoteMapping> getVideoMidiNoteMappings() {
-        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            final MidiNote midiNote = (MidiNote) tableModel.getValueAt(i, 1);
-            mappings.add(new VideoMidiNoteMapping((File) tableModel.getValueAt(i, 0), midiNote));
-        }
-        return mappings;
-    }
-
     private void startVideo(final List<VideoMidiNoteMapping> mappings, final MidiDevice.Info deviceInfo) {
-        final VideoPlayer videoPlayer = new VideoPlayer(options);
+        videoPlayer = new VideoPlayer(options);
         if (options.isBonjour()) {
-            videoPlayer.startRtpMidi(mappings);
+            videoPlayer.startRtpMidi(mappings, setlist);
         } else {
             preferences.setMidiPort(deviceInfo.getName());
-            videoPlayer.start(deviceInfo, mappings);
+            videoPlayer.start(deviceInfo, mappings, setlist);
+        }
+        if (saveFileLocation != null) {
+            videoPlayer.watch(saveFileLocation, loaded -> SwingUtilities.invokeLater(() -> applySaveFile(loaded)));
         }
+        applyButton.setEnabled(true);
     }
 
 }
@@ -0,0 +1,60 @@
+package io.github.leovr.vlcmidi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jmdns.JmDNS;
+import javax.jmdns.ServiceInfo;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Optional;
+
+@Slf4j
+public class BonjourAdvertiser {
+
+    private final Options options;
+    private volatile JmDNS jmdns;
+
+    public BonjourAdvertiser(final Options options) {
+        this.options = options;
+    }
+
+    public void start() {
+        if (!options.isBonjour()) {
+            return;
+        }
+        try {
+            final String interfaceName = Optional.ofNullable(options.getNetworkInterfaceName()).orElse("");
+            final InetAddress jmDnsInetAddress = Collections.list(NetworkInterface.getNetworkInterfaces()).stream()
+                    .filter(networkInterface -> networkInterface.getName().equals(interfaceName)).findFirst().flatMap(
+                            networkInterface -> Collections.list(networkInterface.getInetAddresses()).stream()
+                                    .filter(inetAddress -> inetAddress instanceof Inet4Address).findFirst())
+                    .orElseGet(() -> {
+                        try {
+                            return InetAddress.getLocalHost();
+                        } catch (final UnknownHostException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+
+            jmdns = JmDNS.create(jmDnsInetAddress);
+            for (int session = 0; session < options.getRtpSessions(); session++) {
+                final ServiceInfo serviceInfo = ServiceInfo.create("_apple-midi._udp.local.",
+                        VideoPlayer.rtpSessionName(session), VideoPlayer.rtpSessionPort(session), "apple-midi");
+                jmdns.registerService(serviceInfo);
+            }
+        } catch (final IOException e) {
+            log.error("IOException creating JmDNS", e);
+        }
+
+    }
+
+    public void stop() {
+        if (jmdns != null) {
+            jmdns.unregisterAllServices();
+        }
+    }
+}
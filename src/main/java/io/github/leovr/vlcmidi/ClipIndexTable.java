@@ -0,0 +1,43 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+@Slf4j
+public class ClipIndexTable {
+
+    public static final int UNMAPPED = -1;
+
+    private static final int CHANNELS = 16;
+    private static final int NOTES = 128;
+
+    private final int[] clipIndices = new int[CHANNELS * NOTES];
+
+    public ClipIndexTable() {
+        clear();
+    }
+
+    public void put(final MidiNote midiNote, final int clipIndex) {
+        final int noteNumber = midiNote.getNoteNumber();
+        if (noteNumber < 0 || noteNumber >= NOTES || midiNote.getChannel() < 0 ||
+                midiNote.getChannel() >= CHANNELS) {
+            log.warn("Ignoring mapping of clip {} to invalid note {}", clipIndex, midiNote);
+            return;
+        }
+        clipIndices[slot(midiNote.getChannel(), noteNumber)] = clipIndex;
+    }
+
+    public int clipIndex(final int channel, final int noteNumber) {
+        return clipIndices[slot(channel, noteNumber)];
+    }
+
+    public void clear() {
+        Arrays.fill(clipIndices, UNMAPPED);
+    }
+
+    private static int slot(final int channel, final int noteNumber) {
+        return (channel & 0x0F) * NOTES + (noteNumber & 0x7F);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.leovr.vlcmidi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ClipPredictor {
+
+    private static final int NO_CLIP = -1;
+
+    private final int maximumPredictions;
+    private final Map<Integer, Map<Integer, Integer>> transitions = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int[] setlist = new int[0];
+    private int setlistPosition = -1;
+    private int lastClip = NO_CLIP;
+    private int[] lastPredictions = new int[0];
+
+    public ClipPredictor(final int maximumPredictions) {
+        this.maximumPredictions = Math.max(0, Math.min(3, maximumPredictions));
+    }
+
+    public void setSetlist(final int[] setlist) {
+        this.setlist = setlist.clone();
+        setlistPosition = -1;
+    }
+
+    public int[] onCut(final int clip) {
+        if (lastPredictions.length > 0) {
+            if (contains(lastPredictions, clip)) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+        }
+        if (lastClip != NO_CLIP && lastClip != clip) {
+            transitions.computeIfAbsent(lastClip, key -> new HashMap<>()).merge(clip, 1, Integer::sum);
+        }
+        lastClip = clip;
+        advanceSetlist(clip);
+        lastPredictions = predict(clip);
+        return lastPredictions;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : hits.get() / (double) total;
+    }
+
+    private void advanceSetlist(final int clip) {
+        for (int i = setlistPosition + 1; i < setlist.length; i++) {
+            if (setlist[i] == clip) {
+                setlistPosition = i;
+                return;
+            }
+        }
+        for (int i = 0; i <= setlistPosition && i < setlist.length; i++) {
+            if (setlist[i] == clip) {
+                setlistPosition = i;
+                return;
+            }
+        }
+    }
+
+    private int[] predict(final int clip) {
+        final int[] predictions = new int[maximumPredictions];
+        int count = 0;
+        if (setlistPosition >= 0 && setlist[setlistPosition] == clip) {
+            for (int i = setlistPosition + 1; i < setlist.length && count < maximumPredictions; i++) {
+                if (setlist[i] != clip && !contains(predictions, count, setlist[i])) {
+                    predictions[count++] = setlist[i];
+                    break;
+                }
+            }
+        }
+        final Map<Integer, Integer> followers = transitions.get(clip);
+        while (followers != null && count < maximumPredictions) {
+            int best = NO_CLIP;
+            int bestCount = 0;
+            for (final Map.Entry<Integer, Integer> follower : followers.entrySet()) {
+                if (follower.getValue() > bestCount && !contains(predictions, count, follower.getKey())) {
+                    best = follower.getKey();
+                    bestCount = follower.getValue();
+                }
+            }
+            if (best == NO_CLIP) {
+                break;
+            }
+            predictions[count++] = best;
+        }
+        if (count < maximumPredictions && setlistPosition >= 0) {
+            for (int i = setlistPosition + 1; i < setlist.length && count < maximumPredictions; i++) {
+                if (setlist[i] != clip && !contains(predictions, count, setlist[i])) {
+                    predictions[count++] = setlist[i];
+                }
+            }
+        }
+        final int[] result = new int[count];
+        System.arraycopy(predictions, 0, result, 0, count);
+        return result;
+    }
+
+    private static boolean contains(final int[] clips, final int clip) {
+        return contains(clips, clips.length, clip);
+    }
+
+    private static boolean contains(final int[] clips, final int length, final int clip) {
+        for (int i = 0; i < length; i++) {
+            if (clips[i] == clip) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
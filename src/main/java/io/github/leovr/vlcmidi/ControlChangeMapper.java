@@ -0,0 +1,151 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.midi.MidiControlChangeListenerAdapter;
+import io.github.leovr.vlcmidi.playback.PlaybackBackend;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+public class ControlChangeMapper extends MidiControlChangeListenerAdapter {
+
+    private static final int UNMAPPED = -1;
+    private static final int NO_VALUE = -1;
+    private static final float MAX_VALUE = 127;
+    private static final float MIN_CHANGE = 0.5f / MAX_VALUE;
+    private static final float STEPS_PER_OCTAVE = 32;
+    private static final ControlParameter[] PARAMETERS = ControlParameter.values();
+
+    private final PlaybackBackend backend;
+    private final float smoothing;
+    private final int[] controllers = new int[PARAMETERS.length];
+    private final AtomicIntegerArray values = new AtomicIntegerArray(PARAMETERS.length);
+    private final AtomicLongArray received = new AtomicLongArray(PARAMETERS.length);
+    private final AtomicLongArray applied = new AtomicLongArray(PARAMETERS.length);
+    private final float[] smoothed = new float[PARAMETERS.length];
+    private final float[] lastApplied = new float[PARAMETERS.length];
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "control-change");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Runnable application = this::apply;
+
+    public ControlChangeMapper(final PlaybackBackend backend, final Executor controlExecutor, final Options options) {
+        this.backend = backend;
+        smoothing = Math.max(0, Math.min(1, options.getControlChangeSmoothing()));
+        controllers[ControlParameter.RATE.ordinal()] = controller(options.getRateController());
+        controllers[ControlParameter.POSITION.ordinal()] = controller(options.getPositionController());
+        controllers[ControlParameter.VOLUME.ordinal()] = controller(options.getVolumeController());
+        controllers[ControlParameter.BRIGHTNESS.ordinal()] = controller(options.getBrightnessController());
+        for (int i = 0; i < PARAMETERS.length; i++) {
+            values.set(i, NO_VALUE);
+            smoothed[i] = Float.NaN;
+            lastApplied[i] = Float.NaN;
+        }
+        final long intervalMicros = TimeUnit.SECONDS.toMicros(1) / Math.max(1, options.getControlChangeApplyRate());
+        timer.scheduleAtFixedRate(() -> controlExecutor.execute(application), intervalMicros, intervalMicros,
+                TimeUnit.MICROSECONDS);
+    }
+
+    public static boolean isConfigured(final Options options) {
+        return options.getRateController() != null || options.getPositionController() != null ||
+                options.getVolumeController() != null || options.getBrightnessController() != null;
+    }
+
+    @Override
+    public void onControlChange(final int channel, final int controller, final int value, final long timeStamp) {
+        for (int i = 0; i < controllers.length; i++) {
+            if (controllers[i] == controller) {
+                values.set(i, value);
+                received.incrementAndGet(i);
+            }
+        }
+    }
+
+    public void onCut() {
+        lastApplied[ControlParameter.RATE.ordinal()] = Float.NaN;
+    }
+
+    public long getReceived(final ControlParameter parameter) {
+        return received.get(parameter.ordinal());
+    }
+
+    public long getApplied(final ControlParameter parameter) {
+        return applied.get(parameter.ordinal());
+    }
+
+    public String report() {
+        final StringBuilder report = new StringBuilder("Control changes:");
+        for (final ControlParameter parameter : PARAMETERS) {
+            if (controllers[parameter.ordinal()] != UNMAPPED) {
+                report.append(String.format(" %s CC %d %d received / %d applied,",
+                        parameter.name().toLowerCase(), controllers[parameter.ordinal()],
+                        getReceived(parameter), getApplied(parameter)));
+            }
+        }
+        report.setLength(report.length() - 1);
+        return report.toString();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void apply() {
+        for (int i = 0; i < PARAMETERS.length; i++) {
+            final int value = values.get(i);
+            if (value == NO_VALUE) {
+                continue;
+            }
+            final float target = value / MAX_VALUE;
+            float current = smoothed[i];
+            if (Float.isNaN(current) || PARAMETERS[i] == ControlParameter.POSITION) {
+                current = target;
+            } else {
+                current += (target - current) * smoothing;
+                if (Math.abs(target - current) < MIN_CHANGE) {
+                    current = target;
+                }
+            }
+            smoothed[i] = current;
+            if (Math.abs(current - lastApplied[i]) < MIN_CHANGE) {
+                continue;
+            }
+            lastApplied[i] = current;
+            applied.incrementAndGet(i);
+            switch (PARAMETERS[i]) {
+                case RATE:
+                    backend.setRate((float) Math.pow(2, (current * MAX_VALUE - 64) / STEPS_PER_OCTAVE));
+                    break;
+                case POSITION:
+                    backend.setPosition(current);
+                    break;
+                case VOLUME:
+                    backend.setVolume(Math.round(current * 100));
+                    break;
+                case BRIGHTNESS:
+                    backend.setBrightness(current);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static int controller(final Integer controller) {
+        if (controller == null) {
+            return UNMAPPED;
+        }
+        if (controller < 0 || controller > 127) {
+            log.warn("Ignoring invalid controller number {}", controller);
+            return UNMAPPED;
+        }
+        return controller;
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.leovr.vlcmidi;
+
+public enum ControlParameter {
+
+    RATE,
+
+    POSITION,
+
+    VOLUME,
+
+    BRIGHTNESS
+
+}
@@ -0,0 +1,135 @@
+package io.github.leovr.vlcmidi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.leovr.vlcmidi.midi.MidiDevices;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.probe.MediaProber;
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.factory.discovery.NativeDiscovery;
+
+import javax.sound.midi.MidiDevice;
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class Kiosk {
+
+    private final Options options;
+    private final StartupTimer startupTimer = new StartupTimer();
+    private final BonjourAdvertiser bonjourAdvertiser;
+
+    public Kiosk(final Options options) {
+        this.options = options;
+        bonjourAdvertiser = new BonjourAdvertiser(options);
+    }
+
+    public void run() {
+        if (options.getVideoMappings().isEmpty()) {
+            log.error("Kiosk mode needs a save file");
+            System.exit(1);
+        }
+        final File saveFileLocation = new File(options.getVideoMappings().get(0));
+
+        final ExecutorService startupExecutor = Executors.newFixedThreadPool(4, runnable -> {
+            final Thread thread = new Thread(runnable, "startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletableFuture<Boolean> discovery = CompletableFuture
+                .supplyAsync(startupTimer.time("libvlc discovery", () -> new NativeDiscovery().discover()),
+                        startupExecutor);
+        final CompletableFuture<List<MidiDevice.Info>> midiDevices = CompletableFuture.supplyAsync(
+                startupTimer.time("MIDI device enumeration",
+                        () -> options.isBonjour() ? Collections.<MidiDevice.Info>emptyList() : MidiDevices.inputs()),
+                startupExecutor);
+        final CompletableFuture<Optional<VlcMidiSaveFile>> saveFile = CompletableFuture.supplyAsync(
+                startupTimer.time("save file", () -> VlcMidiSaveFile.read(new ObjectMapper(), saveFileLocation)),
+                startupExecutor);
+        final CompletableFuture<Void> bonjour = options.isDryRun() ? CompletableFuture.completedFuture(null) :
+                CompletableFuture.runAsync(startupTimer.time("JmDNS registration", bonjourAdvertiser::start),
+                        startupExecutor);
+        CompletableFuture.allOf(discovery, midiDevices, saveFile, bonjour).join();
+        startupExecutor.shutdown();
+
+        if (!discovery.join()) {
+            log.warn("Could not discover the native libvlc libraries");
+        }
+        final VlcMidiSaveFile loaded = saveFile.join().orElse(null);
+        if (loaded == null) {
+            log.error("Could not load save file {}", saveFileLocation);
+            exit(1);
+            return;
+        }
+        final List<VideoMidiNoteMapping> mappings = loaded.getMappings().stream()
+                .filter(mapping -> mapping.getMidiNote() != null).collect(Collectors.toList());
+        if (mappings.isEmpty()) {
+            log.error("Save file {} has no assigned videos", saveFileLocation);
+            exit(1);
+            return;
+        }
+        final MidiDevice.Info deviceInfo = options.isBonjour() ? null : findMidiPort(midiDevices.join());
+        if (!options.isBonjour() && deviceInfo == null) {
+            exit(1);
+            return;
+        }
+
+        final MediaProber mediaProber = new MediaProber(options.getMediaInfoCache(), discovery);
+        final CompletableFuture<Void> probe = mediaProber.probe(
+                mappings.stream().map(VideoMidiNoteMapping::getFile).collect(Collectors.toList()), mediaInfo -> {
+                    if (!mediaInfo.isPlayable()) {
+                        log.warn("Video {} is {}", mediaInfo.getFilePath(), mediaInfo.getStatus());
+                    }
+                }).whenComplete((ignored, throwable) -> mediaProber.release());
+
+        if (options.isDryRun()) {
+            startupTimer.time("media probe", () -> {
+                probe.join();
+            }).run();
+            log.info("Dry run: {} videos, MIDI input {}", mappings.size(),
+                    deviceInfo == null ? "RTP-MIDI" : deviceInfo.getName());
+            log.info(startupTimer.breakdown());
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(bonjourAdvertiser::stop, "bonjour-shutdown"));
+        SwingUtilities.invokeLater(startupTimer.time("video player", () -> {
+            final VideoPlayer videoPlayer = new VideoPlayer(options);
+            final List<MidiNote> setlist =
+                    Optional.ofNullable(loaded.getSetlist()).orElseGet(Collections::emptyList);
+            if (options.isBonjour()) {
+                videoPlayer.startRtpMidi(mappings, setlist);
+            } else {
+                new VlcMidiPreferences().setMidiPort(deviceInfo.getName());
+                videoPlayer.start(deviceInfo, mappings, setlist);
+            }
+            videoPlayer.watch(saveFileLocation, reloaded -> {
+            });
+        }));
+        SwingUtilities.invokeLater(() -> log.info("Ready. {}", startupTimer.breakdown()));
+    }
+
+    private MidiDevice.Info findMidiPort(final List<MidiDevice.Info> inputs) {
+        final String midiPort = Optional.ofNullable(options.getMidiPort())
+                .orElseGet(() -> new VlcMidiPreferences().getMidiPort());
+        final Optional<MidiDevice.Info> deviceInfo = MidiDevices.findInput(inputs, midiPort);
+        if (!deviceInfo.isPresent()) {
+            log.error("MIDI input '{}' not found, available: {}", midiPort,
+                    inputs.stream().map(MidiDevice.Info::getName).collect(Collectors.toList()));
+        }
+        return deviceInfo.orElse(null);
+    }
+
+    private void exit(final int status) {
+        if (!options.isDryRun()) {
+            bonjourAdvertiser.stop();
+        }
+        System.exit(status);
+    }
+}
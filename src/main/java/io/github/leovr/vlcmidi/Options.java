@@ -3,6 +3,7 @@ package io.github.leovr.vlcmidi;
 import com.beust.jcommander.Parameter;
 import lombok.Getter;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,4 +25,136 @@ public class Options {
     @Parameter(names = {"-i", "--interface"}, description = "Network interface to bind JmDNS to")
     private String networkInterfaceName;
 
+    @Parameter(names = {"--media-cache-size"}, description = "Number of prepared clips kept besides pinned ones")
+    private int mediaCacheSize = 16;
+
+    @Parameter(names = {"--pin"}, description = "Clip indices that are always kept prepared")
+    private List<Integer> pinnedClips = new ArrayList<>();
+
+    @Parameter(names = {"--player-pool-size"}, description = "Number of players kept ready for gap-free cuts")
+    private int playerPoolSize = 2;
+
+    @Parameter(names = {"--trigger-queue-size"}, description = "Capacity of the trigger queue to the player thread")
+    private int triggerQueueSize = 64;
+
+    @Parameter(names = {"--overflow-policy"}, description = "LATEST_WINS coalesces superseded triggers, " +
+            "DROP_OLDEST executes every queued trigger")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.LATEST_WINS;
+
+    @Parameter(names = {"--retrigger"}, description = "What a trigger does to its own clip: RESTART it, " +
+            "IGNORE_IF_PLAYING or QUEUE it behind --min-retrigger; mappings can override it")
+    private RetriggerMode retriggerMode = RetriggerMode.RESTART;
+
+    @Parameter(names = {"--min-retrigger"}, description = "Minimum milliseconds between two triggers of the same " +
+            "clip, closer ones are suppressed or queued")
+    private long minRetriggerMilliseconds = 0;
+
+    @Parameter(names = {"--coalesce-window"}, description = "Milliseconds a trigger waits for further triggers of " +
+            "the same clip, only the last one is executed")
+    private long coalesceWindowMilliseconds = 0;
+
+    @Parameter(names = {"--predictions"}, description = "Number of predicted next clips (0-3) preloaded after a cue")
+    private int predictions = 2;
+
+    @Parameter(names = {"--schedule-delay"}, description = "Start clips this many milliseconds after the MIDI " +
+            "timestamp instead of on arrival")
+    private Integer scheduleDelayMilliseconds;
+
+    @Parameter(names = {"--chase"}, description = "Keep clips locked to incoming MIDI Time Code or MIDI Clock")
+    private boolean chase = false;
+
+    @Parameter(names = {"--clock-bpm"}, description = "Tempo the clips were produced at, used to chase MIDI Clock")
+    private double clockBeatsPerMinute = 120;
+
+    @Parameter(names = {"--chase-interval"}, description = "Milliseconds between drift corrections while chasing")
+    private long chaseIntervalMilliseconds = 200;
+
+    @Parameter(names = {"--rtp-sessions"}, description = "Number of concurrent RTP-MIDI sessions, " +
+            "each on its own port pair starting at 50004")
+    private int rtpSessions = 1;
+
+    @Parameter(names = {"--jitter-buffer"}, description = "Maximum playout delay in milliseconds the RTP-MIDI " +
+            "jitter buffer may add")
+    private int jitterBufferMilliseconds = 20;
+
+    @Parameter(names = {"--kiosk"}, description = "Start playback directly from the save file without the " +
+            "configuration window")
+    private boolean kiosk = false;
+
+    @Parameter(names = {"--midi-port"}, description = "Name of the MIDI input port, defaults to the last used one")
+    private String midiPort;
+
+    @Parameter(names = {"--dry-run"}, description = "In kiosk mode, load and check everything but exit instead " +
+            "of starting playback")
+    private boolean dryRun = false;
+
+    @Parameter(names = {"--media-info-cache"}, description = "File caching probed video metadata between starts")
+    private File mediaInfoCache = new File(System.getProperty("user.home"), ".vlc-midi/media-info.json");
+
+    @Parameter(names = {"--keyframe-index"}, description = "File caching the keyframes cue points are snapped to")
+    private File keyframeIndex = new File(System.getProperty("user.home"), ".vlc-midi/keyframes.json");
+
+    @Parameter(names = {"--page-cache-budget"}, description = "Megabytes of mapped videos kept warm in the OS " +
+            "page cache across all outputs, 0 disables warming")
+    private long pageCacheBudgetMegabytes = 0;
+
+    @Parameter(names = {"--page-cache-head"}, description = "Megabytes at the start of every mapped video warmed " +
+            "before whole files")
+    private long pageCacheHeadMegabytes = 16;
+
+    @Parameter(names = {"--outputs"}, description = "Number of screens with their own player, mappings choose " +
+            "theirs with \"output\" in the save file")
+    private int outputs = 1;
+
+    @Parameter(names = {"--route-by-channel"}, description = "Send mappings without an output to the screen " +
+            "matching their MIDI channel")
+    private boolean routeByChannel = false;
+
+    @Parameter(names = {"--render-mode"}, description = "EMBEDDED plays into a native window, CALLBACK decodes " +
+            "into a buffer painted by Swing")
+    private RenderMode renderMode = RenderMode.EMBEDDED;
+
+    @Parameter(names = {"--crossfade"}, description = "Milliseconds every cut crossfades for unless its mapping " +
+            "sets its own, needs --render-mode CALLBACK")
+    private long crossfadeMilliseconds = 0;
+
+    @Parameter(names = {"--fade-to-black"}, description = "Milliseconds All Notes Off fades to black instead of " +
+            "cutting to black, needs --render-mode CALLBACK")
+    private long fadeToBlackMilliseconds = 0;
+
+    @Parameter(names = {"--cc-rate"}, description = "Controller number changing the playback rate, 64 plays at " +
+            "normal speed and every 32 steps double or halve it")
+    private Integer rateController;
+
+    @Parameter(names = {"--cc-position"}, description = "Controller number seeking within the playing clip")
+    private Integer positionController;
+
+    @Parameter(names = {"--cc-volume"}, description = "Controller number setting the volume, needs --sound")
+    private Integer volumeController;
+
+    @Parameter(names = {"--cc-brightness"}, description = "Controller number dimming the picture, the opacity " +
+            "over black in --render-mode CALLBACK")
+    private Integer brightnessController;
+
+    @Parameter(names = {"--cc-apply-rate"}, description = "Times per second the latest controller values are " +
+            "applied to the player")
+    private int controlChangeApplyRate = 50;
+
+    @Parameter(names = {"--cc-smoothing"}, description = "Share of the remaining distance to a new controller " +
+            "value covered per application, 1 applies values unsmoothed")
+    private float controlChangeSmoothing = 0.35f;
+
+    @Parameter(names = {"--poster-cache"}, description = "Megabytes of first frames shown while a clip starts, " +
+            "0 disables poster frames")
+    private long posterCacheMegabytes = 0;
+
+    @Parameter(names = {"--poster-width"}, description = "Maximum width in pixels poster frames are decoded at")
+    private int posterWidth = 960;
+
+    @Parameter(names = {"--poster-off-heap"}, description = "Keep poster frames in direct buffers outside the heap")
+    private boolean posterOffHeap = false;
+
+    @Parameter(names = {"--poster-directory"}, description = "Directory caching decoded poster frames between starts")
+    private File posterDirectory = new File(System.getProperty("user.home"), ".vlc-midi/posters");
+
 }
@@ -0,0 +1,149 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteEventListener;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import io.github.leovr.vlcmidi.playback.PageCacheWarmer;
+import io.github.leovr.vlcmidi.probe.KeyframeIndexer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class OutputRouter {
+
+    private final List<PlaybackOutput> outputs;
+    private final boolean routeByChannel;
+    private final KeyframeIndexer keyframeIndexer;
+    private final PageCacheWarmer pageCacheWarmer;
+    private final long startNanos = System.nanoTime();
+    private final long startCpuNanos = processCpuNanos();
+    private final LongAdder unmappedNotes = new LongAdder();
+
+    public OutputRouter(final List<PlaybackOutput> outputs, final boolean routeByChannel,
+                        final KeyframeIndexer keyframeIndexer, final PageCacheWarmer pageCacheWarmer) {
+        this.outputs = outputs;
+        this.routeByChannel = routeByChannel;
+        this.keyframeIndexer = keyframeIndexer;
+        this.pageCacheWarmer = pageCacheWarmer;
+    }
+
+    public static int output(final VideoMidiNoteMapping mapping, final int outputs, final boolean routeByChannel) {
+        if (mapping.getOutput() != null) {
+            if (mapping.getOutput() >= 0 && mapping.getOutput() < outputs) {
+                return mapping.getOutput();
+            }
+            log.warn("Output {} of {} does not exist, using the first output", mapping.getOutput(),
+                    mapping.getFilePath());
+            return 0;
+        }
+        if (routeByChannel && mapping.getMidiNote() != null) {
+            return mapping.getMidiNote().getChannel() % outputs;
+        }
+        return 0;
+    }
+
+    public synchronized void load(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist) {
+        final List<List<VideoMidiNoteMapping>> routedMappings = new ArrayList<>();
+        outputs.forEach(output -> routedMappings.add(new ArrayList<>()));
+        for (final VideoMidiNoteMapping mapping : mappings) {
+            routedMappings.get(output(mapping, outputs.size(), routeByChannel)).add(mapping);
+        }
+        final CompletableFuture<?>[] loads = new CompletableFuture<?>[outputs.size()];
+        for (int i = 0; i < outputs.size(); i++) {
+            final TriggerEngine triggerEngine = outputs.get(i).getTriggerEngine();
+            final List<VideoMidiNoteMapping> outputMappings = routedMappings.get(i);
+            loads[i] = CompletableFuture.runAsync(() ->
+                    triggerEngine.load(outputMappings, setlist, keyframeIndexer));
+            log.info("Output {} plays {} clips", outputs.get(i).getName(), outputMappings.size());
+        }
+        CompletableFuture.allOf(loads).join();
+        keyframeIndexer.save();
+        log.info(keyframeIndexer.report());
+        if (pageCacheWarmer != null) {
+            pageCacheWarmer.warm(mappings.stream().map(VideoMidiNoteMapping::getFile).collect(Collectors.toList()),
+                    setlistFiles(mappings, setlist));
+        }
+    }
+
+    private static List<File> setlistFiles(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist) {
+        final List<File> files = new ArrayList<>();
+        for (final MidiNote note : setlist) {
+            for (final VideoMidiNoteMapping mapping : mappings) {
+                if (mapping.getMidiNote().getChannel() == note.getChannel() &&
+                        mapping.getMidiNote().getNoteNumber() == note.getNoteNumber()) {
+                    files.add(mapping.getFile());
+                }
+            }
+        }
+        return files;
+    }
+
+    public void register(final MidiNoteReceiver receiver) {
+        outputs.forEach(output -> output.getTriggerEngine().register(receiver));
+        receiver.registerMidiNoteEventListener(new MidiNoteEventListener() {
+            @Override
+            public void onNoteStart(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+            }
+
+            @Override
+            public void onNoteEnd(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+                for (int i = 0; i < outputs.size(); i++) {
+                    if (outputs.get(i).getTriggerEngine().isMapped(channel, noteNumber)) {
+                        return;
+                    }
+                }
+                unmappedNotes.increment();
+                log.debug("Could not find a mapping for note {} on channel {}", noteNumber, channel);
+            }
+        });
+    }
+
+    public long getUnmappedNotes() {
+        return unmappedNotes.sum();
+    }
+
+    public void stopPlayback() {
+        outputs.forEach(output -> output.getTriggerEngine().stopPlayback());
+    }
+
+    public String report() {
+        final long wallNanos = System.nanoTime() - startNanos;
+        final StringBuilder report = new StringBuilder(String.format("Process CPU %.1f%% of one core",
+                percent(processCpuNanos() - startCpuNanos, wallNanos)));
+        for (final PlaybackOutput output : outputs) {
+            final PlayerControlThread playerControlThread = output.getTriggerEngine().getPlayerControlThread();
+            report.append(String.format("%nOutput %s: control thread CPU %d ms (%.1f%%)%n", output.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(playerControlThread.getCpuTimeNanos()),
+                    percent(playerControlThread.getCpuTimeNanos(), wallNanos)));
+            report.append(output.getTriggerEngine().latencyReport());
+            if (output.getPlaybackBackend().getRenderStatistics() != null) {
+                report.append(System.lineSeparator()).append(output.getPlaybackBackend().getRenderStatistics().report());
+            }
+        }
+        if (pageCacheWarmer != null) {
+            report.append(System.lineSeparator()).append(pageCacheWarmer.report());
+        }
+        return report.toString();
+    }
+
+    private static double percent(final long cpuNanos, final long wallNanos) {
+        return wallNanos > 0 ? 100.0 * cpuNanos / wallNanos : 0;
+    }
+
+    private static long processCpuNanos() {
+        final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystem).getProcessCpuTime();
+        }
+        return 0;
+    }
+}
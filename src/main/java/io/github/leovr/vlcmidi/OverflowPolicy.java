@@ -0,0 +1,9 @@
+package io.github.leovr.vlcmidi;
+
+public enum OverflowPolicy {
+
+    LATEST_WINS,
+
+    DROP_OLDEST
+
+}
@@ -0,0 +1,226 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.metrics.LagProbe;
+import io.github.leovr.vlcmidi.metrics.MBeans;
+import io.github.leovr.vlcmidi.metrics.RenderStatistics;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.playback.PageCacheWarmer;
+import io.github.leovr.vlcmidi.playback.VlcjPlaybackBackend;
+import lombok.Getter;
+import uk.co.caprica.vlcj.player.embedded.fullscreen.FullScreenStrategy;
+import uk.co.caprica.vlcj.player.embedded.fullscreen.adaptive.AdaptiveFullScreenStrategy;
+
+import javax.management.ObjectName;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.event.MouseInputAdapter;
+import java.awt.CardLayout;
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.GraphicsDevice;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+public class PlaybackOutput implements PlaybackOutputMBean {
+
+    private static final String BLACK_PANEL = "blackPanel";
+
+    @Getter
+    private final int index;
+    @Getter
+    private final GraphicsDevice device;
+    private final JFrame frame;
+    private final FullScreenStrategy fullScreenStrategy;
+    @Getter
+    private final VlcjPlaybackBackend playbackBackend;
+    @Getter
+    private final TriggerEngine triggerEngine;
+    @Getter
+    private final LagProbe controlThreadLag;
+    private final ObjectName objectName;
+
+    public PlaybackOutput(final Options options, final int index, final GraphicsDevice device,
+                          final KeyListener sharedKeyListener, final Runnable onClose,
+                          final PageCacheWarmer pageCacheWarmer) {
+        this.index = index;
+        this.device = device;
+        frame = new JFrame(index == 0 ? "Video Player" : "Video Player " + (index + 1),
+                device.getDefaultConfiguration());
+        final Rectangle bounds = device.getDefaultConfiguration().getBounds();
+        frame.setBounds(bounds.x + 100, bounds.y + 100, 600, 400);
+        frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(final WindowEvent e) {
+                onClose.run();
+            }
+        });
+
+        fullScreenStrategy = new AdaptiveFullScreenStrategy(frame);
+
+        final KeyAdapter keyListener = new KeyAdapter() {
+            @Override
+            public void keyPressed(final KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_ESCAPE:
+                        fullScreenStrategy.exitFullScreenMode();
+                        normalCursor();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        toggleFullScreen();
+                        break;
+                    default:
+                        sharedKeyListener.keyPressed(e);
+                        break;
+                }
+            }
+        };
+        final MouseInputAdapter mouseListener = new MouseInputAdapter() {
+            @Override
+            public void mousePressed(final MouseEvent e) {
+                mousePressedHandler(e);
+            }
+        };
+
+        final CardLayout cardLayout = new CardLayout();
+        frame.getContentPane().setLayout(cardLayout);
+        final JPanel blackPanel = new JPanel();
+        blackPanel.setBackground(Color.BLACK);
+        blackPanel.addMouseListener(mouseListener);
+        blackPanel.addKeyListener(keyListener);
+        frame.getContentPane().add(blackPanel, BLACK_PANEL);
+
+        final TriggerLatencyRecorder latencyRecorder = new TriggerLatencyRecorder();
+        playbackBackend = new VlcjPlaybackBackend(options, frame.getContentPane(), cardLayout, BLACK_PANEL,
+                latencyRecorder, keyListener, mouseListener);
+        triggerEngine = new TriggerEngine(playbackBackend, latencyRecorder, options,
+                index == 0 ? "player-control" : "player-control-" + (index + 1), pageCacheWarmer);
+        controlThreadLag = new LagProbe(triggerEngine.getPlayerControlThread());
+        objectName = MBeans.register(this, "PlaybackOutput", String.valueOf(index + 1));
+        frame.setVisible(true);
+    }
+
+    public void start() {
+        fullScreenStrategy.enterFullScreenMode();
+        transparentCursor();
+    }
+
+    public void close() {
+        MBeans.unregister(objectName);
+        triggerEngine.shutdown();
+        playbackBackend.release();
+        frame.dispose();
+    }
+
+    @Override
+    public String getName() {
+        return (index + 1) + " (" + device.getIDstring() + ")";
+    }
+
+    @Override
+    public String getPlayerState() {
+        return playbackBackend.playerState();
+    }
+
+    @Override
+    public int getCurrentClip() {
+        return triggerEngine.getPlayingClip();
+    }
+
+    @Override
+    public long getTriggersExecuted() {
+        return triggerEngine.getTriggerPolicy().getExecuted();
+    }
+
+    @Override
+    public long getTriggersSuppressed() {
+        return triggerEngine.getTriggerPolicy().getSuppressed();
+    }
+
+    @Override
+    public long getTriggersCoalesced() {
+        return triggerEngine.getTriggerPolicy().getCoalesced() + triggerEngine.getPlayerControlThread().getCoalesced();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return triggerEngine.getPlayerControlThread().getQueueDepth();
+    }
+
+    @Override
+    public long getQueueDropped() {
+        return triggerEngine.getPlayerControlThread().getDropped();
+    }
+
+    @Override
+    public long getLateTriggers() {
+        return triggerEngine.getPlayerControlThread().getLateTriggers();
+    }
+
+    @Override
+    public double getControlThreadLagMillis() {
+        return millis(controlThreadLag.getLagNanos());
+    }
+
+    @Override
+    public double getMaxControlThreadLagMillis() {
+        return millis(controlThreadLag.getMaxLagNanos());
+    }
+
+    @Override
+    public double getTriggerLatencyP99Millis() {
+        return millis(triggerEngine.getLatencyRecorder().getTotal().getPercentile(99));
+    }
+
+    @Override
+    public long getRenderedFrames() {
+        final RenderStatistics renderStatistics = playbackBackend.getRenderStatistics();
+        return renderStatistics != null ? renderStatistics.getRenderedFrames() : -1;
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        final RenderStatistics renderStatistics = playbackBackend.getRenderStatistics();
+        return renderStatistics != null ? renderStatistics.getDroppedFrames() : -1;
+    }
+
+    static double millis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private void mousePressedHandler(final MouseEvent e) {
+        if (e.getClickCount() == 2) {
+            toggleFullScreen();
+            if (fullScreenStrategy.isFullScreenMode()) {
+                transparentCursor();
+            } else {
+                normalCursor();
+            }
+        }
+    }
+
+    private void toggleFullScreen() {
+        if (fullScreenStrategy.isFullScreenMode()) {
+            fullScreenStrategy.exitFullScreenMode();
+        } else {
+            fullScreenStrategy.enterFullScreenMode();
+        }
+    }
+
+    private void normalCursor() {
+        frame.setCursor(Cursor.getDefaultCursor());
+    }
+
+    private void transparentCursor() {
+        frame.setCursor(frame.getToolkit()
+                .createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.leovr.vlcmidi;
+
+public interface PlaybackOutputMBean {
+
+    String getName();
+
+    String getPlayerState();
+
+    int getCurrentClip();
+
+    long getTriggersExecuted();
+
+    long getTriggersSuppressed();
+
+    long getTriggersCoalesced();
+
+    int getQueueDepth();
+
+    long getQueueDropped();
+
+    long getLateTriggers();
+
+    double getControlThreadLagMillis();
+
+    double getMaxControlThreadLagMillis();
+
+    double getTriggerLatencyP99Millis();
+
+    long getRenderedFrames();
+
+    long getDroppedFrames();
+
+}
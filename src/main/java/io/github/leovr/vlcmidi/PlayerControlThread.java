@@ -0,0 +1,252 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.metrics.LatencyHistogram;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+public class PlayerControlThread implements Executor {
+
+    public static final int PRIME = 1 << 16;
+    public static final int CUT = 2 << 16;
+    public static final int STOP = 3 << 16;
+
+    private static final int TYPE_MASK = 0xFFFF0000;
+    private static final int CLIP_MASK = 0xFFFF;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    public static final long IMMEDIATE = 0;
+
+    public interface TriggerHandler {
+
+        void prime(final int clip);
+
+        void cut(final int clip, final long receivedNanos, final long dispatchedNanos);
+
+        void stop();
+
+    }
+
+    public interface DeferredTriggers {
+
+        long dispatchDue(final long nowNanos);
+
+        void supersede(final long receivedNanos);
+
+    }
+
+    private final TriggerHandler handler;
+    @Getter
+    private final OverflowPolicy overflowPolicy;
+    private final TriggerRing ring;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final int[] batchEvents;
+    private final long[] batchTimestamps;
+    private final long[] batchDueTimes;
+    @Getter
+    private final LatencyHistogram schedulingError = new LatencyHistogram();
+    private final AtomicLong lateTriggers = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final Thread thread;
+    private volatile DeferredTriggers deferredTriggers;
+    private volatile boolean running = true;
+
+    public PlayerControlThread(final TriggerHandler handler, final int queueSize,
+                               final OverflowPolicy overflowPolicy) {
+        this(handler, queueSize, overflowPolicy, "player-control");
+    }
+
+    public PlayerControlThread(final TriggerHandler handler, final int queueSize,
+                               final OverflowPolicy overflowPolicy, final String name) {
+        this.handler = handler;
+        this.overflowPolicy = overflowPolicy;
+        ring = new TriggerRing(queueSize);
+        batchEvents = new int[ring.capacity()];
+        batchTimestamps = new long[ring.capacity()];
+        batchDueTimes = new long[ring.capacity()];
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    public void prime(final int clip) {
+        offer(PRIME | clip, IMMEDIATE);
+    }
+
+    public void cut(final int clip, final long dueNanos) {
+        offer(CUT | clip, dueNanos);
+    }
+
+    public void stop(final long dueNanos) {
+        offer(STOP, dueNanos);
+    }
+
+    public void setDeferredTriggers(final DeferredTriggers deferredTriggers) {
+        this.deferredTriggers = deferredTriggers;
+    }
+
+    void dispatchDeferred(final int clip, final long receivedNanos, final long dueNanos) {
+        if (dueNanos != IMMEDIATE) {
+            awaitDueTime(dueNanos);
+        }
+        dispatchEvent(CUT | clip, receivedNanos);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        tasks.add(task);
+        LockSupport.unpark(thread);
+    }
+
+    public boolean isControlThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return ring.size();
+    }
+
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    public long getCpuTimeNanos() {
+        return ManagementFactory.getThreadMXBean().getThreadCpuTime(thread.getId());
+    }
+
+    public long getLateTriggers() {
+        return lateTriggers.get();
+    }
+
+    private void offer(final int event, final long dueNanos) {
+        ring.offer(event, System.nanoTime(), dueNanos);
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            runTasks();
+            final long deferredDelayNanos = dispatchDeferred();
+            final int count = ring.drainTo(batchEvents, batchTimestamps, batchDueTimes);
+            if (count == 0) {
+                if (tasks.isEmpty()) {
+                    LockSupport.parkNanos(this, Math.min(IDLE_PARK_NANOS, deferredDelayNanos));
+                }
+                continue;
+            }
+            dispatchBatch(count);
+        }
+        runTasks();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                log.error("Player control task failed", e);
+            }
+        }
+    }
+
+    private long dispatchDeferred() {
+        final DeferredTriggers currentDeferredTriggers = deferredTriggers;
+        return currentDeferredTriggers != null ? currentDeferredTriggers.dispatchDue(System.nanoTime()) :
+                Long.MAX_VALUE;
+    }
+
+    private void dispatchBatch(final int count) {
+        int first = 0;
+        if (overflowPolicy == OverflowPolicy.LATEST_WINS) {
+            for (int i = count - 1; i > 0; i--) {
+                final int type = batchEvents[i] & TYPE_MASK;
+                if (type == CUT || type == STOP) {
+                    first = i;
+                    break;
+                }
+            }
+            coalesced.addAndGet(first);
+        }
+        for (int i = first; i < count; i++) {
+            if (batchDueTimes[i] != IMMEDIATE) {
+                awaitDueTime(batchDueTimes[i]);
+            }
+            dispatchEvent(batchEvents[i], batchTimestamps[i]);
+        }
+    }
+
+    private void awaitDueTime(final long dueNanos) {
+        long remainingNanos = dueNanos - System.nanoTime();
+        if (remainingNanos < 0) {
+            lateTriggers.incrementAndGet();
+            schedulingError.record(-remainingNanos);
+            return;
+        }
+        while (remainingNanos > SPIN_NANOS) {
+            LockSupport.parkNanos(this, remainingNanos - SPIN_NANOS);
+            remainingNanos = dueNanos - System.nanoTime();
+        }
+        while (remainingNanos > 0) {
+            Thread.yield();
+            remainingNanos = dueNanos - System.nanoTime();
+        }
+        schedulingError.record(-remainingNanos);
+    }
+
+    private void dispatchEvent(final int event, final long receivedNanos) {
+        try {
+            switch (event & TYPE_MASK) {
+                case PRIME:
+                    handler.prime(event & CLIP_MASK);
+                    break;
+                case CUT:
+                    supersedeDeferred(receivedNanos);
+                    handler.cut(event & CLIP_MASK, receivedNanos, System.nanoTime());
+                    break;
+                case STOP:
+                    supersedeDeferred(receivedNanos);
+                    handler.stop();
+                    break;
+            }
+            executed.incrementAndGet();
+        } catch (final RuntimeException e) {
+            log.error("Could not execute trigger {}", Integer.toHexString(event), e);
+        }
+    }
+
+    private void supersedeDeferred(final long receivedNanos) {
+        final DeferredTriggers currentDeferredTriggers = deferredTriggers;
+        if (currentDeferredTriggers != null) {
+            currentDeferredTriggers.supersede(receivedNanos);
+        }
+    }
+}
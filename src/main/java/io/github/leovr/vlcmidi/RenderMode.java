@@ -0,0 +1,9 @@
+package io.github.leovr.vlcmidi;
+
+public enum RenderMode {
+
+    EMBEDDED,
+
+    CALLBACK
+
+}
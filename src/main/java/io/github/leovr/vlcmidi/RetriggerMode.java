@@ -0,0 +1,11 @@
+package io.github.leovr.vlcmidi;
+
+public enum RetriggerMode {
+
+    RESTART,
+
+    IGNORE_IF_PLAYING,
+
+    QUEUE
+
+}
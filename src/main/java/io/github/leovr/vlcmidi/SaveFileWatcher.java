@@ -0,0 +1,89 @@
+package io.github.leovr.vlcmidi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class SaveFileWatcher {
+
+    private static final long SETTLE_MILLIS = 250;
+
+    private final File saveFile;
+    private final ObjectMapper objectMapper;
+    private final Consumer<VlcMidiSaveFile> onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final AtomicLong reloads = new AtomicLong();
+
+    public SaveFileWatcher(final File saveFile, final ObjectMapper objectMapper,
+                           final Consumer<VlcMidiSaveFile> onChange) throws IOException {
+        this.saveFile = saveFile.getAbsoluteFile();
+        this.objectMapper = objectMapper;
+        this.onChange = onChange;
+        final Path directory = this.saveFile.getParentFile().toPath();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "save-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for changes", this.saveFile);
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (final IOException e) {
+            log.debug("Could not close the watch service of {}", saveFile, e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = affectsSaveFile(key);
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= affectsSaveFile(key);
+                }
+                if (changed) {
+                    VlcMidiSaveFile.read(objectMapper, saveFile).ifPresent(loaded -> {
+                        reloads.incrementAndGet();
+                        log.info("Save file {} changed, applying it", saveFile);
+                        onChange.accept(loaded);
+                    });
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", saveFile);
+        }
+    }
+
+    private boolean affectsSaveFile(final WatchKey key) {
+        boolean affected = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                    saveFile.getName().equals(String.valueOf(event.context()))) {
+                affected = true;
+            }
+        }
+        key.reset();
+        return affected;
+    }
+}
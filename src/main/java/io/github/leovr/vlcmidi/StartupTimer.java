@@ -0,0 +1,52 @@
+package io.github.leovr.vlcmidi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class StartupTimer {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phaseNanos = new ConcurrentHashMap<>();
+
+    public <T> Supplier<T> time(final String phase, final Supplier<T> task) {
+        return () -> {
+            final long phaseStartNanos = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(phase, System.nanoTime() - phaseStartNanos);
+            }
+        };
+    }
+
+    public Runnable time(final String phase, final Runnable task) {
+        return () -> time(phase, () -> {
+            task.run();
+            return null;
+        }).get();
+    }
+
+    public void record(final String phase, final long nanos) {
+        phaseNanos.put(phase, nanos);
+        log.debug("Startup phase {} took {} ms", phase, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public String breakdown() {
+        final String phases = phaseNanos.entrySet().stream().sorted(Map.Entry.comparingByValue())
+                .map(entry -> entry.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + " ms")
+                .collect(Collectors.joining(", "));
+        return String.format("Startup took %d ms (%d ms since JVM start): %s", getElapsedMillis(),
+                ManagementFactory.getRuntimeMXBean().getUptime(), phases);
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.metrics.LatencyHistogram;
+import io.github.leovr.vlcmidi.midi.ExternalTimeline;
+import io.github.leovr.vlcmidi.playback.PlaybackBackend;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class TimecodeChase {
+
+    private static final long DEADBAND_MILLIS = 20;
+    private static final long SEEK_THRESHOLD_MILLIS = 500;
+    private static final long SEEK_HOLD_OFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final float MAX_RATE_CORRECTION = 0.05f;
+    private static final float MIN_RATE_CHANGE = 0.005f;
+    private static final double CORRECTION_WINDOW_MILLIS = 2000;
+
+    @Getter
+    private final ExternalTimeline timeline;
+    private final PlaybackBackend backend;
+    private final Executor controlExecutor;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "timecode-chase");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Runnable correction = this::correct;
+    @Getter
+    private final LatencyHistogram drift = new LatencyHistogram();
+    private final AtomicLong rateAdjustments = new AtomicLong();
+    private final AtomicLong seeks = new AtomicLong();
+    private volatile long lastDriftMillis;
+    private boolean chasing;
+    private long anchorNanos;
+    private long cueMillis;
+    private float rate = 1;
+    private long lastSeekNanos;
+
+    public TimecodeChase(final ExternalTimeline timeline, final PlaybackBackend backend,
+                         final Executor controlExecutor, final long intervalMillis) {
+        this.timeline = timeline;
+        this.backend = backend;
+        this.controlExecutor = controlExecutor;
+        timer.scheduleWithFixedDelay(() -> controlExecutor.execute(correction), intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void onCut(final long cueMillis) {
+        chasing = timeline.isRunning();
+        anchorNanos = timeline.positionNanos();
+        this.cueMillis = cueMillis;
+        rate = 1;
+        lastSeekNanos = 0;
+    }
+
+    public void onStop() {
+        chasing = false;
+    }
+
+    public long getLastDriftMillis() {
+        return lastDriftMillis;
+    }
+
+    public long getRateAdjustments() {
+        return rateAdjustments.get();
+    }
+
+    public long getSeeks() {
+        return seeks.get();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void correct() {
+        if (!chasing || !timeline.isRunning()) {
+            return;
+        }
+        final long playbackMillis = backend.playbackTime();
+        if (playbackMillis < 0) {
+            return;
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(timeline.positionNanos() - anchorNanos);
+        if (elapsedMillis < 0) {
+            return;
+        }
+        final long expectedMillis = cueMillis + elapsedMillis;
+        final long driftMillis = expectedMillis - playbackMillis;
+        lastDriftMillis = driftMillis;
+        drift.record(TimeUnit.MILLISECONDS.toNanos(Math.abs(driftMillis)));
+
+        if (Math.abs(driftMillis) >= SEEK_THRESHOLD_MILLIS) {
+            final long now = System.nanoTime();
+            if (now - lastSeekNanos >= SEEK_HOLD_OFF_NANOS) {
+                log.debug("Seeking to {} ms, drift {} ms", expectedMillis, driftMillis);
+                backend.seek(expectedMillis);
+                applyRate(1);
+                lastSeekNanos = now;
+                seeks.incrementAndGet();
+            }
+            return;
+        }
+        if (Math.abs(driftMillis) <= DEADBAND_MILLIS) {
+            applyRate(1);
+            return;
+        }
+        final float correction = (float) Math.max(-MAX_RATE_CORRECTION,
+                Math.min(MAX_RATE_CORRECTION, driftMillis / CORRECTION_WINDOW_MILLIS));
+        applyRate(1 + correction);
+    }
+
+    private void applyRate(final float newRate) {
+        if (Math.abs(newRate - rate) < MIN_RATE_CHANGE && (newRate != 1 || rate == 1)) {
+            return;
+        }
+        backend.setRate(newRate);
+        rate = newRate;
+        rateAdjustments.incrementAndGet();
+    }
+}
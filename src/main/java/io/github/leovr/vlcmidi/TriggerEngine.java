@@ -0,0 +1,330 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.midi.ExternalTimeline;
+import io.github.leovr.vlcmidi.midi.MidiControlChangeListenerAdapter;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteEventListener;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import io.github.leovr.vlcmidi.midi.MidiTimestampClock;
+import io.github.leovr.vlcmidi.playback.ClipCue;
+import io.github.leovr.vlcmidi.playback.PageCacheWarmer;
+import io.github.leovr.vlcmidi.playback.PlaybackBackend;
+import io.github.leovr.vlcmidi.probe.KeyframeIndex;
+import io.github.leovr.vlcmidi.probe.KeyframeIndexer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class TriggerEngine implements PlayerControlThread.TriggerHandler {
+
+    private static final int NO_CLIP = -1;
+
+    private final List<VideoMidiNoteMapping> clips = new ArrayList<>();
+    private volatile ClipIndexTable clipIndexTable = new ClipIndexTable();
+    private List<ClipCue> clipCues = Collections.emptyList();
+    private List<File> clipFiles = Collections.emptyList();
+    private final ClipPredictor clipPredictor;
+    private final MidiTimestampClock timestampClock = new MidiTimestampClock();
+    private final long scheduleDelayNanos;
+    private final PlaybackBackend backend;
+    private final TimecodeChase timecodeChase;
+    private final ControlChangeMapper controlChangeMapper;
+    private final PageCacheWarmer pageCacheWarmer;
+    private final long crossfadeMillis;
+    private final long fadeToBlackMillis;
+    @Getter
+    private final TriggerPolicy triggerPolicy;
+    private volatile int playingClip = NO_CLIP;
+    @Getter
+    private final TriggerLatencyRecorder latencyRecorder;
+    @Getter
+    private final PlayerControlThread playerControlThread;
+
+    public TriggerEngine(final PlaybackBackend backend, final TriggerLatencyRecorder latencyRecorder,
+                         final Options options) {
+        this(backend, latencyRecorder, options, "player-control");
+    }
+
+    public TriggerEngine(final PlaybackBackend backend, final TriggerLatencyRecorder latencyRecorder,
+                         final Options options, final String controlThreadName) {
+        this(backend, latencyRecorder, options, controlThreadName, null);
+    }
+
+    public TriggerEngine(final PlaybackBackend backend, final TriggerLatencyRecorder latencyRecorder,
+                         final Options options, final String controlThreadName,
+                         final PageCacheWarmer pageCacheWarmer) {
+        this.backend = backend;
+        this.latencyRecorder = latencyRecorder;
+        clipPredictor = new ClipPredictor(options.getPredictions());
+        crossfadeMillis = options.getCrossfadeMilliseconds();
+        fadeToBlackMillis = options.getFadeToBlackMilliseconds();
+        scheduleDelayNanos = options.getScheduleDelayMilliseconds() == null ? -1 :
+                TimeUnit.MILLISECONDS.toNanos(options.getScheduleDelayMilliseconds());
+        playerControlThread =
+                new PlayerControlThread(this, options.getTriggerQueueSize(), options.getOverflowPolicy(),
+                        controlThreadName);
+        triggerPolicy = new TriggerPolicy(playerControlThread, options);
+        playerControlThread.setDeferredTriggers(triggerPolicy);
+        backend.init(playerControlThread);
+        timecodeChase = options.isChase() ? new TimecodeChase(new ExternalTimeline(options.getClockBeatsPerMinute()),
+                backend, playerControlThread, options.getChaseIntervalMilliseconds()) : null;
+        controlChangeMapper = ControlChangeMapper.isConfigured(options) ?
+                new ControlChangeMapper(backend, playerControlThread, options) : null;
+        if (timecodeChase != null && options.getRateController() != null) {
+            log.warn("Timecode chase and --cc-rate both change the playback rate");
+        }
+        this.pageCacheWarmer = pageCacheWarmer;
+    }
+
+    public void load(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist) {
+        load(mappings, setlist, null);
+    }
+
+    public synchronized void load(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist,
+                                  final KeyframeIndexer keyframeIndexer) {
+        final int previousClips = clips.size();
+        final long previouslyMapped = clips.stream().filter(Objects::nonNull).count();
+        diff(mappings);
+        final List<String> mrls = new ArrayList<>();
+        final List<ClipCue> cues = new ArrayList<>();
+        final List<String> clipNames = new ArrayList<>();
+        final List<File> files = new ArrayList<>();
+        final long[] crossfades = new long[clips.size()];
+        final ClipIndexTable loadedClipIndexTable = new ClipIndexTable();
+        for (int i = 0; i < clips.size(); i++) {
+            final VideoMidiNoteMapping mapping = clips.get(i);
+            if (mapping == null) {
+                mrls.add(null);
+                cues.add(ClipCue.NONE);
+                clipNames.add(null);
+                files.add(null);
+                continue;
+            }
+            mrls.add(mapping.getFile().getAbsolutePath());
+            crossfades[i] = mapping.getCrossfadeMilliseconds() != null ? mapping.getCrossfadeMilliseconds() :
+                    crossfadeMillis;
+            cues.add(cue(mapping, keyframeIndexer));
+            clipNames.add(mapping.getFile().getName());
+            files.add(mapping.getFile());
+            loadedClipIndexTable.put(mapping.getMidiNote(), i);
+        }
+        latencyRecorder.setClipNames(clipNames);
+        logCues(cues);
+        triggerPolicy.load(clips);
+        final int[] setlistClips = setlist.stream()
+                .mapToInt(note -> loadedClipIndexTable.clipIndex(note.getChannel(), note.getNoteNumber()))
+                .filter(clip -> clip != ClipIndexTable.UNMAPPED).toArray();
+        CompletableFuture.runAsync(() -> {
+            backend.load(mrls, crossfades, cues);
+            clipPredictor.setSetlist(setlistClips);
+            clipCues = cues;
+            clipFiles = files;
+            clipIndexTable = loadedClipIndexTable;
+        }, playerControlThread).join();
+        if (previousClips > 0) {
+            final long kept = clips.subList(0, previousClips).stream().filter(Objects::nonNull).count();
+            log.info("Reloaded mappings: {} clips kept, {} added, {} removed", kept, clips.size() - previousClips,
+                    previouslyMapped - kept);
+        }
+    }
+
+    public void register(final MidiNoteReceiver receiver) {
+        receiver.registerMidiNoteEventListener(new MidiNoteEventListener() {
+            @Override
+            public void onNoteStart(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+                if (scheduleDelayNanos >= 0) {
+                    timestampClock.toLocalNanos(timeStamp, System.nanoTime());
+                }
+                final int index = clipIndexTable.clipIndex(channel, noteNumber);
+                if (index == ClipIndexTable.UNMAPPED) {
+                    return;
+                }
+                playerControlThread.prime(index);
+            }
+
+            @Override
+            public void onNoteEnd(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+                final int index = clipIndexTable.clipIndex(channel, noteNumber);
+                if (index == ClipIndexTable.UNMAPPED) {
+                    return;
+                }
+                triggerPolicy.trigger(index, dueNanos(timeStamp));
+            }
+        });
+        receiver.registerMidiControlChangeListener(new MidiControlChangeListenerAdapter() {
+            @Override
+            public void onAllNotesOff() {
+                playerControlThread.stop(PlayerControlThread.IMMEDIATE);
+            }
+        });
+        if (controlChangeMapper != null) {
+            receiver.registerMidiControlChangeListener(controlChangeMapper);
+        }
+        if (timecodeChase != null) {
+            receiver.registerMidiTimingListener(timecodeChase.getTimeline());
+        }
+    }
+
+    public void stopPlayback() {
+        playerControlThread.execute(this::stop);
+    }
+
+    public int getPlayingClip() {
+        return playingClip;
+    }
+
+    public boolean isMapped(final int channel, final int noteNumber) {
+        return clipIndexTable.clipIndex(channel, noteNumber) != ClipIndexTable.UNMAPPED;
+    }
+
+    public String latencyReport() {
+        return latencyRecorder.report();
+    }
+
+    public void shutdown() {
+        log.info(latencyRecorder.report());
+        log.info("Trigger queue: {} executed, {} coalesced, {} dropped", playerControlThread.getExecuted(),
+                playerControlThread.getCoalesced(), playerControlThread.getDropped());
+        if (scheduleDelayNanos >= 0) {
+            log.info("Trigger scheduling: {} late, error {}", playerControlThread.getLateTriggers(),
+                    playerControlThread.getSchedulingError().summary());
+        }
+        log.info(triggerPolicy.report());
+        log.info("Clip predictor: {} hits, {} misses, hit rate {}%", clipPredictor.getHits(),
+                clipPredictor.getMisses(), Math.round(clipPredictor.getHitRate() * 100));
+        if (controlChangeMapper != null) {
+            log.info(controlChangeMapper.report());
+            controlChangeMapper.shutdown();
+        }
+        if (timecodeChase != null) {
+            log.info("Timecode chase: {} rate adjustments, {} seeks, drift {}", timecodeChase.getRateAdjustments(),
+                    timecodeChase.getSeeks(), timecodeChase.getDrift().summary());
+            timecodeChase.shutdown();
+        }
+        playerControlThread.shutdown();
+    }
+
+    private void diff(final List<VideoMidiNoteMapping> mappings) {
+        final Map<String, Deque<Integer>> previousIndices = new HashMap<>();
+        for (int i = 0; i < clips.size(); i++) {
+            if (clips.get(i) != null) {
+                previousIndices.computeIfAbsent(mediaKey(clips.get(i)), key -> new ArrayDeque<>()).add(i);
+            }
+        }
+        Collections.fill(clips, null);
+        for (final VideoMidiNoteMapping mapping : mappings) {
+            final Deque<Integer> indices = previousIndices.get(mediaKey(mapping));
+            if (indices != null && !indices.isEmpty()) {
+                clips.set(indices.poll(), mapping);
+            } else {
+                clips.add(mapping);
+            }
+        }
+    }
+
+    private static String mediaKey(final VideoMidiNoteMapping mapping) {
+        return mapping.getFilePath() + '|' + mapping.getStartMilliseconds() + '|' + mapping.getEndMilliseconds() +
+                '|' + mapping.getLoop();
+    }
+
+    private static ClipCue cue(final VideoMidiNoteMapping mapping, final KeyframeIndexer keyframeIndexer) {
+        final long startMillis = mapping.getStartMilliseconds() != null ?
+                Math.max(0, mapping.getStartMilliseconds()) : 0;
+        long endMillis = mapping.getEndMilliseconds() != null ? mapping.getEndMilliseconds() : -1;
+        if (endMillis >= 0 && endMillis <= startMillis) {
+            log.warn("Ignoring end {} ms of {}, it is not after the start", endMillis, mapping.getFilePath());
+            endMillis = -1;
+        }
+        final boolean loop = Boolean.TRUE.equals(mapping.getLoop());
+        if (startMillis == 0) {
+            return endMillis < 0 && !loop ? ClipCue.NONE : new ClipCue(0, 0, endMillis, loop, false);
+        }
+        final KeyframeIndex keyframeIndex = keyframeIndexer != null ? keyframeIndexer.index(mapping.getFile()) : null;
+        if (keyframeIndex == null || !keyframeIndex.isSupported()) {
+            return new ClipCue(startMillis, startMillis, endMillis, loop, false);
+        }
+        return new ClipCue(startMillis, keyframeIndex.keyframeAtOrBefore(startMillis), endMillis, loop, true);
+    }
+
+    private static void logCues(final List<ClipCue> cues) {
+        final long cued = cues.stream().filter(ClipCue::isCued).count();
+        if (cued == 0) {
+            return;
+        }
+        final long snapped = cues.stream().filter(cue -> cue.isCued() && cue.isFastSeek()).count();
+        final long maxSnapMillis = cues.stream().filter(ClipCue::isCued)
+                .mapToLong(cue -> cue.getStartMillis() - cue.getSeekMillis()).max().orElse(0);
+        log.info("{} clips start at a cue point, {} snapped to a keyframe up to {} ms early", cued, snapped,
+                maxSnapMillis);
+    }
+
+    private long dueNanos(final long timeStamp) {
+        if (scheduleDelayNanos < 0) {
+            return PlayerControlThread.IMMEDIATE;
+        }
+        return timestampClock.toLocalNanos(timeStamp, System.nanoTime()) + scheduleDelayNanos;
+    }
+
+    @Override
+    public void prime(final int clip) {
+        backend.prepare(clip);
+    }
+
+    @Override
+    public void cut(final int clip, final long receivedNanos, final long dispatchedNanos) {
+        if (clip == playingClip && triggerPolicy.ignoresWhilePlaying(clip) && backend.isPlaying()) {
+            triggerPolicy.suppressed();
+            return;
+        }
+        triggerPolicy.executed();
+        playingClip = clip;
+        log.info("Starting video {}", clip);
+        backend.play(clip, receivedNanos, dispatchedNanos);
+        if (timecodeChase != null) {
+            timecodeChase.onCut(clip < clipCues.size() ? clipCues.get(clip).getStartMillis() : 0);
+        }
+        if (controlChangeMapper != null) {
+            controlChangeMapper.onCut();
+        }
+        if (pageCacheWarmer != null && clip < clipFiles.size() && clipFiles.get(clip) != null) {
+            pageCacheWarmer.touch(clipFiles.get(clip));
+        }
+        final int[] predictions = clipPredictor.onCut(clip);
+        if (predictions.length > 0) {
+            log.debug("Preloading {} after clip {}", Arrays.toString(predictions), clip);
+            playerControlThread.execute(() -> {
+                for (final int prediction : predictions) {
+                    backend.preload(prediction);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void stop() {
+        playingClip = NO_CLIP;
+        if (fadeToBlackMillis > 0) {
+            backend.fadeToBlack(fadeToBlackMillis);
+        } else {
+            backend.stop();
+            backend.showBlack();
+        }
+        if (timecodeChase != null) {
+            timecodeChase.onStop();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.leovr.vlcmidi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class TriggerPolicy implements PlayerControlThread.DeferredTriggers {
+
+    /**
+     * Only the MIDI thread writes a deferral, the sequence is odd while it does. The control thread takes a
+     * deferral by recording its sequence, so neither side ever waits for the other.
+     */
+    private static final class ClipState {
+
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong taken = new AtomicLong();
+        private volatile long arrivalNanos;
+        private volatile long deadlineNanos;
+        private volatile long dueNanos;
+        private volatile long lastTriggerNanos;
+
+        private boolean isPending() {
+            return sequence.get() != taken.get();
+        }
+
+        private void defer(final long arrivalNanos, final long delayNanos, final long dueNanos) {
+            final long stamp = sequence.incrementAndGet();
+            this.arrivalNanos = arrivalNanos;
+            deadlineNanos = arrivalNanos + delayNanos;
+            this.dueNanos = dueNanos != PlayerControlThread.IMMEDIATE ? dueNanos + delayNanos :
+                    PlayerControlThread.IMMEDIATE;
+            sequence.set(stamp + 1);
+        }
+
+    }
+
+    private static final class Rules {
+
+        private final RetriggerMode[] modes;
+        private final long[] minIntervalNanos;
+        private final long[] windowNanos;
+        private final boolean[] mapped;
+        private final ClipState[] states;
+
+        private Rules(final int size) {
+            modes = new RetriggerMode[size];
+            minIntervalNanos = new long[size];
+            windowNanos = new long[size];
+            mapped = new boolean[size];
+            states = new ClipState[size];
+        }
+
+    }
+
+    private final PlayerControlThread playerControlThread;
+    private final RetriggerMode defaultMode;
+    private final long defaultMinIntervalMillis;
+    private final long defaultWindowMillis;
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private volatile Rules rules = new Rules(0);
+    private volatile boolean deferred;
+
+    public TriggerPolicy(final PlayerControlThread playerControlThread, final Options options) {
+        this.playerControlThread = playerControlThread;
+        defaultMode = options.getRetriggerMode();
+        defaultMinIntervalMillis = options.getMinRetriggerMilliseconds();
+        defaultWindowMillis = options.getCoalesceWindowMilliseconds();
+    }
+
+    public synchronized void load(final List<VideoMidiNoteMapping> mappings) {
+        final Rules previous = rules;
+        final Rules loaded = new Rules(mappings.size());
+        for (int i = 0; i < mappings.size(); i++) {
+            loaded.states[i] = i < previous.states.length ? previous.states[i] : new ClipState();
+            final VideoMidiNoteMapping mapping = mappings.get(i);
+            if (mapping == null) {
+                loaded.modes[i] = defaultMode;
+                continue;
+            }
+            loaded.mapped[i] = true;
+            loaded.modes[i] = mapping.getRetriggerMode() != null ? mapping.getRetriggerMode() : defaultMode;
+            loaded.minIntervalNanos[i] = TimeUnit.MILLISECONDS.toNanos(mapping.getMinRetriggerMilliseconds() != null ?
+                    mapping.getMinRetriggerMilliseconds() : defaultMinIntervalMillis);
+            loaded.windowNanos[i] = TimeUnit.MILLISECONDS.toNanos(mapping.getCoalesceWindowMilliseconds() != null ?
+                    mapping.getCoalesceWindowMilliseconds() : defaultWindowMillis);
+        }
+        rules = loaded;
+    }
+
+    public void trigger(final int clip, final long dueNanos) {
+        final Rules currentRules = rules;
+        if (clip >= currentRules.states.length) {
+            playerControlThread.cut(clip, dueNanos);
+            return;
+        }
+        final ClipState state = currentRules.states[clip];
+        final long nowNanos = System.nanoTime();
+        if (currentRules.windowNanos[clip] > 0) {
+            if (state.isPending()) {
+                coalesced.incrementAndGet();
+            }
+            defer(state, nowNanos, currentRules.windowNanos[clip], dueNanos);
+            return;
+        }
+        if (state.isPending()) {
+            coalesced.incrementAndGet();
+            return;
+        }
+        final long lastTriggerNanos = state.lastTriggerNanos;
+        final long sinceLastNanos = nowNanos - lastTriggerNanos;
+        if (lastTriggerNanos != 0 && sinceLastNanos < currentRules.minIntervalNanos[clip]) {
+            if (currentRules.modes[clip] == RetriggerMode.QUEUE) {
+                queued.incrementAndGet();
+                defer(state, nowNanos, currentRules.minIntervalNanos[clip] - sinceLastNanos, dueNanos);
+            } else {
+                suppressed.incrementAndGet();
+            }
+            return;
+        }
+        state.lastTriggerNanos = nowNanos;
+        playerControlThread.cut(clip, dueNanos);
+    }
+
+    @Override
+    public long dispatchDue(final long nowNanos) {
+        if (!deferred) {
+            return Long.MAX_VALUE;
+        }
+        deferred = false;
+        final Rules currentRules = rules;
+        long nextDelayNanos = Long.MAX_VALUE;
+        for (int clip = 0; clip < currentRules.states.length; clip++) {
+            final ClipState state = currentRules.states[clip];
+            final long stamp = state.sequence.get();
+            if (stamp == state.taken.get()) {
+                continue;
+            }
+            final long arrivalNanos = state.arrivalNanos;
+            final long deadlineNanos = state.deadlineNanos;
+            final long dueNanos = state.dueNanos;
+            if ((stamp & 1) != 0 || state.sequence.get() != stamp) {
+                deferred = true;
+                nextDelayNanos = 0;
+                continue;
+            }
+            final long delayNanos = deadlineNanos - nowNanos;
+            if (delayNanos > 0) {
+                deferred = true;
+                nextDelayNanos = Math.min(nextDelayNanos, delayNanos);
+                continue;
+            }
+            state.taken.set(stamp);
+            if (!currentRules.mapped[clip]) {
+                continue;
+            }
+            state.lastTriggerNanos = System.nanoTime();
+            playerControlThread.dispatchDeferred(clip, arrivalNanos, dueNanos);
+        }
+        return nextDelayNanos;
+    }
+
+    @Override
+    public void supersede(final long receivedNanos) {
+        if (!deferred) {
+            return;
+        }
+        for (final ClipState state : rules.states) {
+            final long stamp = state.sequence.get();
+            if (stamp == state.taken.get()) {
+                continue;
+            }
+            final long arrivalNanos = state.arrivalNanos;
+            if ((stamp & 1) != 0 || state.sequence.get() != stamp || arrivalNanos - receivedNanos >= 0) {
+                continue;
+            }
+            state.taken.set(stamp);
+            coalesced.incrementAndGet();
+        }
+    }
+
+    public boolean ignoresWhilePlaying(final int clip) {
+        final RetriggerMode[] currentModes = rules.modes;
+        return clip < currentModes.length && currentModes[clip] == RetriggerMode.IGNORE_IF_PLAYING;
+    }
+
+    public void executed() {
+        executed.incrementAndGet();
+    }
+
+    public void suppressed() {
+        suppressed.incrementAndGet();
+    }
+
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public String report() {
+        return String.format("Trigger policy: %d executed, %d suppressed, %d coalesced, %d queued", executed.get(),
+                suppressed.get(), coalesced.get(), queued.get());
+    }
+
+    private void defer(final ClipState state, final long arrivalNanos, final long delayNanos,
+                       final long dueNanos) {
+        state.defer(arrivalNanos, delayNanos, dueNanos);
+        deferred = true;
+    }
+}
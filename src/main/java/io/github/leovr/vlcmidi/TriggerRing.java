@@ -0,0 +1,75 @@
+package io.github.leovr.vlcmidi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TriggerRing {
+
+    private final int capacity;
+    private final int mask;
+    private final int[] events;
+    private final long[] timestamps;
+    private final long[] dueTimes;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public TriggerRing(final int requestedCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        events = new int[capacity];
+        timestamps = new long[capacity];
+        dueTimes = new long[capacity];
+    }
+
+    public void offer(final int event, final long timestamp, final long dueTime) {
+        final long currentTail = tail.get();
+        while (true) {
+            final long currentHead = head.get();
+            if (currentTail - currentHead < capacity) {
+                break;
+            }
+            if (head.compareAndSet(currentHead, currentHead + 1)) {
+                dropped.incrementAndGet();
+                break;
+            }
+        }
+        final int slot = (int) (currentTail & mask);
+        events[slot] = event;
+        timestamps[slot] = timestamp;
+        dueTimes[slot] = dueTime;
+        tail.lazySet(currentTail + 1);
+    }
+
+    public int drainTo(final int[] eventsOut, final long[] timestampsOut, final long[] dueTimesOut) {
+        int count = 0;
+        while (count < eventsOut.length) {
+            final long currentHead = head.get();
+            if (currentHead == tail.get()) {
+                break;
+            }
+            final int slot = (int) (currentHead & mask);
+            final int event = events[slot];
+            final long timestamp = timestamps[slot];
+            final long dueTime = dueTimes[slot];
+            if (head.compareAndSet(currentHead, currentHead + 1)) {
+                eventsOut[count] = event;
+                timestampsOut[count] = timestamp;
+                dueTimesOut[count] = dueTime;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
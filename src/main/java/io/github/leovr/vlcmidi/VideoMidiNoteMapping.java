@@ -1,6 +1,7 @@
 package io.github.leovr.vlcmidi;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.github.leovr.vlcmidi.midi.MidiNote;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,8 +17,38 @@ public class VideoMidiNoteMapping {
         this.midiNote = midiNote;
     }
 
+    public VideoMidiNoteMapping(final VideoMidiNoteMapping mapping) {
+        filePath = mapping.filePath;
+        midiNote = mapping.midiNote != null ? new MidiNote(mapping.midiNote.getNote(), mapping.midiNote.getOctave(),
+                mapping.midiNote.getChannel(), mapping.midiNote.isStart()) : null;
+        crossfadeMilliseconds = mapping.crossfadeMilliseconds;
+        output = mapping.output;
+        retriggerMode = mapping.retriggerMode;
+        minRetriggerMilliseconds = mapping.minRetriggerMilliseconds;
+        coalesceWindowMilliseconds = mapping.coalesceWindowMilliseconds;
+        startMilliseconds = mapping.startMilliseconds;
+        endMilliseconds = mapping.endMilliseconds;
+        loop = mapping.loop;
+    }
+
     private String filePath;
     private MidiNote midiNote;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long crossfadeMilliseconds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer output;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RetriggerMode retriggerMode;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long minRetriggerMilliseconds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long coalesceWindowMilliseconds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long startMilliseconds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long endMilliseconds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean loop;
 
     @JsonIgnore
     public File getFile() {
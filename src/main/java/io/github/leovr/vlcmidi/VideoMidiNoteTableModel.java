@@ -0,0 +1,208 @@
+package io.github.leovr.vlcmidi;
+
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.probe.MediaInfo;
+
+import javax.swing.table.AbstractTableModel;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class VideoMidiNoteTableModel extends AbstractTableModel {
+
+    public static final int FILE_COLUMN = 0;
+    public static final int MIDI_NOTE_COLUMN = 1;
+    public static final int STATUS_COLUMN = 2;
+
+    private static final String[] COLUMN_NAMES = new String[]{"Video Datei", "MIDI Note", "Status"};
+    private static final Class<?>[] COLUMN_TYPES = new Class<?>[]{File.class, MidiNote.class, MediaInfo.class};
+    private static final String UNASSIGNED = "Nicht zugewiesen";
+
+    private static class Row {
+        private final VideoMidiNoteMapping mapping;
+        private final File file;
+        private final String fileName;
+        private int index;
+        private String midiNoteText;
+        private MediaInfo mediaInfo;
+        private String statusText;
+
+        private Row(final VideoMidiNoteMapping mapping) {
+            this.mapping = mapping;
+            file = mapping.getFile();
+            fileName = file.getName();
+            midiNoteText = midiNoteText(mapping.getMidiNote());
+            statusText = statusText(null);
+        }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<String, List<Row>> rowsByPath = new HashMap<>();
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(final int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(final int columnIndex) {
+        return COLUMN_TYPES[columnIndex];
+    }
+
+    @Override
+    public boolean isCellEditable(final int rowIndex, final int columnIndex) {
+        return columnIndex == MIDI_NOTE_COLUMN;
+    }
+
+    @Override
+    public Object getValueAt(final int rowIndex, final int columnIndex) {
+        final Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case FILE_COLUMN:
+                return row.file;
+            case MIDI_NOTE_COLUMN:
+                return row.mapping.getMidiNote();
+            default:
+                return row.mediaInfo;
+        }
+    }
+
+    @Override
+    public void setValueAt(final Object value, final int rowIndex, final int columnIndex) {
+        if (columnIndex != MIDI_NOTE_COLUMN) {
+            return;
+        }
+        final Row row = rows.get(rowIndex);
+        row.mapping.setMidiNote((MidiNote) value);
+        row.midiNoteText = midiNoteText(row.mapping.getMidiNote());
+        fireTableCellUpdated(rowIndex, columnIndex);
+    }
+
+    public String getDisplayText(final int rowIndex, final int columnIndex) {
+        final Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case FILE_COLUMN:
+                return row.fileName;
+            case MIDI_NOTE_COLUMN:
+                return row.midiNoteText;
+            default:
+                return row.statusText;
+        }
+    }
+
+    public boolean isPlayable(final int rowIndex) {
+        final MediaInfo mediaInfo = rows.get(rowIndex).mediaInfo;
+        return mediaInfo == null || mediaInfo.isPlayable();
+    }
+
+    public void setMappings(final Collection<VideoMidiNoteMapping> mappings) {
+        rows.clear();
+        rowsByPath.clear();
+        mappings.forEach(this::addRow);
+        fireTableDataChanged();
+    }
+
+    public void addMappings(final Collection<VideoMidiNoteMapping> mappings) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+        final int firstRow = rows.size();
+        mappings.forEach(this::addRow);
+        fireTableRowsInserted(firstRow, rows.size() - 1);
+    }
+
+    public void removeRows(final int[] rowIndices) {
+        if (rowIndices.length == 0) {
+            return;
+        }
+        final int[] sorted = rowIndices.clone();
+        Arrays.sort(sorted);
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            final Row row = rows.remove(sorted[i]);
+            final List<Row> samePath = rowsByPath.get(row.mapping.getFilePath());
+            samePath.remove(row);
+            if (samePath.isEmpty()) {
+                rowsByPath.remove(row.mapping.getFilePath());
+            }
+        }
+        for (int i = sorted[0]; i < rows.size(); i++) {
+            rows.get(i).index = i;
+        }
+        fireTableDataChanged();
+    }
+
+    public void setMediaInfos(final Collection<MediaInfo> mediaInfos) {
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
+        for (final MediaInfo mediaInfo : mediaInfos) {
+            for (final Row row : rowsByPath.getOrDefault(mediaInfo.getFilePath(), Collections.emptyList())) {
+                row.mediaInfo = mediaInfo;
+                row.statusText = statusText(mediaInfo);
+                firstRow = Math.min(firstRow, row.index);
+                lastRow = Math.max(lastRow, row.index);
+            }
+        }
+        if (lastRow >= 0) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    public List<VideoMidiNoteMapping> getMappings() {
+        return rows.stream().map(row -> row.mapping).collect(Collectors.toList());
+    }
+
+    public List<VideoMidiNoteMapping> getAssignedMappings() {
+        return rows.stream().map(row -> row.mapping).filter(mapping -> mapping.getMidiNote() != null)
+                .map(VideoMidiNoteMapping::new).collect(Collectors.toList());
+    }
+
+    public static String midiNoteText(final MidiNote midiNote) {
+        if (midiNote == null) {
+            return UNASSIGNED;
+        }
+        return midiNote.getNote() + " " + midiNote.getOctave() + " Ch. " + (midiNote.getChannel() + 1);
+    }
+
+    private void addRow(final VideoMidiNoteMapping mapping) {
+        final Row row = new Row(new VideoMidiNoteMapping(mapping));
+        row.index = rows.size();
+        rows.add(row);
+        rowsByPath.computeIfAbsent(mapping.getFilePath(), path -> new ArrayList<>(1)).add(row);
+    }
+
+    private static String statusText(final MediaInfo mediaInfo) {
+        if (mediaInfo == null) {
+            return "Wird geprüft";
+        }
+        switch (mediaInfo.getStatus()) {
+            case OK:
+                return mediaInfo.getSummary();
+            case MISSING:
+                return "Datei fehlt";
+            case UNREADABLE:
+                return "Nicht lesbar";
+            case UNDECODABLE:
+                return "Nicht abspielbar";
+            case TIMEOUT:
+                return "Zeitüberschreitung";
+            default:
+                return "Wird geprüft";
+        }
+    }
+}
@@ -1,231 +1,228 @@
 package io.github.leovr.vlcmidi;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.leovr.rtipmidi.AppleMidiServer;
 import io.github.leovr.rtipmidi.MidiReceiverAppleMidiSession;
-import io.github.leovr.vlcmidi.midi.MidiControlChangeListenerAdapter;
+import io.github.leovr.vlcmidi.metrics.LagProbe;
+import io.github.leovr.vlcmidi.metrics.MBeans;
+import io.github.leovr.vlcmidi.midi.MidiJitterBuffer;
 import io.github.leovr.vlcmidi.midi.MidiNote;
-import io.github.leovr.vlcmidi.midi.MidiNoteListenerAdapter;
 import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
-import lombok.EqualsAndHashCode;
+import io.github.leovr.vlcmidi.playback.PageCacheWarmer;
+import io.github.leovr.vlcmidi.probe.KeyframeIndexer;
 import lombok.extern.slf4j.Slf4j;
-import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
-import uk.co.caprica.vlcj.medialist.MediaApi;
-import uk.co.caprica.vlcj.player.base.MediaPlayer;
-import uk.co.caprica.vlcj.player.component.EmbeddedMediaListPlayerComponent;
-import uk.co.caprica.vlcj.player.component.MediaPlayerSpecs;
-import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
-import uk.co.caprica.vlcj.player.embedded.fullscreen.adaptive.AdaptiveFullScreenStrategy;
-import uk.co.caprica.vlcj.player.list.MediaListPlayer;
-import uk.co.caprica.vlcj.player.list.PlaybackMode;
 
+import javax.management.ObjectName;
 import javax.sound.midi.MidiDevice;
 import javax.sound.midi.MidiSystem;
 import javax.sound.midi.MidiUnavailableException;
-import javax.swing.JFrame;
-import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
-import javax.swing.event.MouseInputAdapter;
-import java.awt.CardLayout;
-import java.awt.Color;
-import java.awt.Cursor;
-import java.awt.Point;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.awt.event.MouseEvent;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
-import java.awt.image.BufferedImage;
-import java.util.HashMap;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
-public class VideoPlayer {
+public class VideoPlayer implements VideoPlayerMBean {
 
 
     private final Options options;
 
-    @EqualsAndHashCode
-    private static class MidiNoteKey {
-
-        private final String note;
-        private final int octave;
-        private final int channel;
-
-        MidiNoteKey(final MidiNote midiNote) {
-            note = midiNote.getNote();
-            octave = midiNote.getOctave();
-            channel = midiNote.getChannel();
-        }
-    }
-
-    private static final String BLACK_PANEL = "blackPanel";
-    private static final String VIDEO_PLAYER = "videoPlayer";
-    private final JFrame frame;
-
-    private final EmbeddedMediaListPlayerComponent mediaPlayerComponent;
-    private final Map<MidiNoteKey, Integer> midiNoteMapping = new HashMap<>();
-    private final CardLayout cardLayout;
+    private static final String RTP_SESSION_NAME = "VLC MIDI Player";
+    private static final int RTP_BASE_PORT = 50004;
+    private static final long LAG_PROBE_INTERVAL_MILLIS = 1000;
+
+    private final List<PlaybackOutput> outputs = new ArrayList<>();
+    private final OutputRouter outputRouter;
+    private final PageCacheWarmer pageCacheWarmer;
+    private final LagProbe edtLag = new LagProbe(SwingUtilities::invokeLater);
+    private final ScheduledExecutorService lagProbeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "lag-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ObjectName objectName;
     private MidiDevice midiDevice;
-    private final MediaListPlayer mediaListPlayer;
-    private final EmbeddedMediaPlayer mediaPlayer;
-    private AppleMidiServer appleMidiServer;
+    private MidiNoteReceiver receiver;
+    private final List<AppleMidiServer> appleMidiServers = new ArrayList<>();
+    private MidiJitterBuffer jitterBuffer;
+    private volatile SaveFileWatcher saveFileWatcher;
+    private volatile boolean closed;
 
     public VideoPlayer(final Options options) {
         this.options = options;
-        frame = new JFrame("Video Player");
-        frame.setBounds(100, 100, 600, 400);
-        frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
-        frame.addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowClosing(final WindowEvent e) {
-                mediaPlayerComponent.release();
-                if (midiDevice != null) {
-                    midiDevice.close();
-                }
-                if (appleMidiServer != null) {
-                    appleMidiServer.stop();
-                }
-                frame.dispose();
-            }
-        });
-
-        final String[] args;
-        if (options.getCachingMilliseconds() == null) {
-            args = new String[]{"--video-title=vlcj video output", "--no-snapshot-preview", "--quiet", "--intf=dummy",
-                    "--file-caching=0", "--disc-caching=0"};
-        } else {
-            args = new String[]{"--video-title=vlcj video output", "--no-snapshot-preview", "--quiet", "--intf=dummy",
-                    "--file-caching=" + options.getCachingMilliseconds(),
-                    "--disc-caching=" + options.getCachingMilliseconds()};
-        }
 
-        mediaPlayerComponent = new EmbeddedMediaListPlayerComponent(
-                MediaPlayerSpecs.embeddedMediaPlayerSpec().withFactory(new MediaPlayerFactory(args))) {
+        final KeyAdapter keyListener = new KeyAdapter() {
             @Override
             public void keyPressed(final KeyEvent e) {
                 switch (e.getKeyCode()) {
-                    case KeyEvent.VK_ESCAPE:
-                        mediaPlayer.fullScreen().set(false);
-                        normalCursor();
-                        break;
-                    case KeyEvent.VK_ENTER:
-                        mediaPlayer.fullScreen().toggle();
-                        break;
                     case KeyEvent.VK_SPACE:
-                        stop();
+                        outputRouter.stopPlayback();
+                        break;
+                    case KeyEvent.VK_L:
+                        log.info(outputRouter.report());
+                        if (jitterBuffer != null) {
+                            log.info(jitterBuffer.report());
+                        }
                         break;
                 }
             }
+        };
 
-            @Override
-            public void mousePressed(final MouseEvent e) {
-                mousePressedHandler(e);
-            }
+        final GraphicsDevice[] screens = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+        if (options.getOutputs() > screens.length) {
+            log.warn("{} outputs requested but only {} screens found", options.getOutputs(), screens.length);
+        }
+        pageCacheWarmer = options.getPageCacheBudgetMegabytes() > 0 ?
+                new PageCacheWarmer(options.getPageCacheBudgetMegabytes() << 20,
+                        options.getPageCacheHeadMegabytes() << 20) : null;
+        for (int i = 0; i < Math.max(1, options.getOutputs()); i++) {
+            outputs.add(new PlaybackOutput(options, i, screens[i % screens.length], keyListener, this::close,
+                    pageCacheWarmer));
+        }
+        outputRouter = new OutputRouter(outputs, options.isRouteByChannel(),
+                new KeyframeIndexer(options.getKeyframeIndex()), pageCacheWarmer);
+        objectName = MBeans.register(this, "VideoPlayer", RTP_SESSION_NAME);
+        lagProbeScheduler.scheduleAtFixedRate(this::sampleLag, LAG_PROBE_INTERVAL_MILLIS, LAG_PROBE_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
 
-            @Override
-            public void finished(final MediaPlayer mediaPlayer) {
-                stop();
-            }
-        };
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        lagProbeScheduler.shutdownNow();
+        MBeans.unregister(objectName);
+        if (receiver != null) {
+            receiver.unregisterMBean();
+        }
+        if (saveFileWatcher != null) {
+            saveFileWatcher.close();
+        }
+        log.info(outputRouter.report());
+        outputs.forEach(PlaybackOutput::close);
+        if (pageCacheWarmer != null) {
+            pageCacheWarmer.shutdown();
+        }
+        if (midiDevice != null) {
+            midiDevice.close();
+        }
+        appleMidiServers.forEach(AppleMidiServer::stop);
+        if (jitterBuffer != null) {
+            log.info(jitterBuffer.report());
+            jitterBuffer.close();
+        }
+    }
 
-        cardLayout = new CardLayout();
-        frame.getContentPane().setLayout(cardLayout);
-        frame.getContentPane().add(mediaPlayerComponent, VIDEO_PLAYER);
-        final JPanel blackPanel = new JPanel();
-        blackPanel.setBackground(Color.BLACK);
-        blackPanel.addMouseListener(new MouseInputAdapter() {
-            @Override
-            public void mousePressed(final MouseEvent e) {
-                mousePressedHandler(e);
-            }
-        });
-        blackPanel.addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyPressed(final KeyEvent e) {
-                switch (e.getKeyCode()) {
-                    case KeyEvent.VK_ESCAPE:
-                        mediaPlayer.fullScreen().set(false);
-                        normalCursor();
-                        break;
-                    case KeyEvent.VK_ENTER:
-                        mediaPlayer.fullScreen().toggle();
-                        break;
-                }
-            }
-        });
+    public void start(final MidiDevice.Info deviceInfo, final List<VideoMidiNoteMapping> mappings,
+                      final List<MidiNote> setlist) {
+        outputRouter.load(mappings, setlist);
 
-        frame.getContentPane().add(blackPanel, BLACK_PANEL);
-        mediaPlayer = mediaPlayerComponent.mediaPlayer();
-        frame.setVisible(true);
-        mediaListPlayer = mediaPlayerComponent.mediaListPlayer();
-        mediaPlayer.fullScreen().strategy(new AdaptiveFullScreenStrategy(frame));
+        initMidi(deviceInfo);
 
-        if (!options.isSound()) {
-            mediaPlayer.audio().mute();
-        }
+        start();
+    }
+
+    public void startRtpMidi(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist) {
+        outputRouter.load(mappings, setlist);
 
-        mediaPlayer.controls().setRepeat(false);
-        mediaListPlayer.controls().setMode(PlaybackMode.DEFAULT);
+        initRtpMidi();
 
+        start();
     }
 
-    private void mousePressedHandler(final MouseEvent e) {
-        if (e.getClickCount() == 2) {
-            mediaPlayer.fullScreen().toggle();
-            if (mediaPlayer.fullScreen().isFullScreen()) {
-                transparentCursor();
-            } else {
-                normalCursor();
-            }
+    public void reload(final List<VideoMidiNoteMapping> mappings, final List<MidiNote> setlist) {
+        if (closed) {
+            return;
         }
+        outputRouter.load(mappings.stream().filter(mapping -> mapping.getMidiNote() != null)
+                .collect(Collectors.toList()), setlist);
     }
 
-    private void normalCursor() {
-        frame.setCursor(Cursor.getDefaultCursor());
+    public void watch(final File saveFile, final Consumer<VlcMidiSaveFile> onReload) {
+        try {
+            saveFileWatcher = new SaveFileWatcher(saveFile, new ObjectMapper(), loaded -> {
+                reload(loaded.getMappings(), Optional.ofNullable(loaded.getSetlist()).orElseGet(ArrayList::new));
+                onReload.accept(loaded);
+            });
+        } catch (final IOException e) {
+            log.warn("Could not watch save file {}", saveFile, e);
+        }
     }
 
-    private void blackScreen() {
-        cardLayout.show(frame.getContentPane(), BLACK_PANEL);
+    public boolean isClosed() {
+        return closed;
     }
 
+    @Override
+    public int getOutputs() {
+        return outputs.size();
+    }
 
-    public void start(final MidiDevice.Info deviceInfo, final List<VideoMidiNoteMapping> mappings) {
-        initMediaList(mappings);
-
-        initMidi(deviceInfo);
+    @Override
+    public long getNotesWithoutMapping() {
+        return outputRouter.getUnmappedNotes();
+    }
 
-        start();
+    @Override
+    public double getEdtLagMillis() {
+        return PlaybackOutput.millis(edtLag.getLagNanos());
     }
 
-    public void startRtpMidi(final List<VideoMidiNoteMapping> mappings) {
-        initMediaList(mappings);
+    @Override
+    public double getMaxEdtLagMillis() {
+        return PlaybackOutput.millis(edtLag.getMaxLagNanos());
+    }
 
-        initRtpMidi();
+    @Override
+    public long getReloads() {
+        final SaveFileWatcher currentWatcher = saveFileWatcher;
+        return currentWatcher != null ? currentWatcher.getReloads() : 0;
+    }
 
-        start();
+    private void sampleLag() {
+        edtLag.sample();
+        outputs.forEach(output -> output.getControlThreadLag().sample());
     }
 
     private void start() {
-        mediaPlayer.fullScreen().set(true);
-        transparentCursor();
+        outputs.forEach(PlaybackOutput::start);
     }
 
-    private void transparentCursor() {
-        frame.setCursor(frame.getToolkit()
-                .createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
+    public static String rtpSessionName(final int session) {
+        return session == 0 ? RTP_SESSION_NAME : RTP_SESSION_NAME + " " + (session + 1);
     }
 
-    private void initRtpMidi() {
-
-        appleMidiServer = new AppleMidiServer("VLC MIDI Player", 50004);
+    public static int rtpSessionPort(final int session) {
+        return RTP_BASE_PORT + 2 * session;
+    }
 
-        final MidiNoteReceiver receiver = new MidiNoteReceiver();
-        registerMidiNoteListener(receiver);
-        registerMidiControlChangeListener(receiver);
+    private void initRtpMidi() {
 
-        appleMidiServer.addAppleMidiSession(new MidiReceiverAppleMidiSession(receiver));
-        appleMidiServer.start();
+        receiver = new MidiNoteReceiver();
+        receiver.registerMBean("RTP-MIDI");
+        outputRouter.register(receiver);
+        jitterBuffer = new MidiJitterBuffer(receiver,
+                TimeUnit.MILLISECONDS.toNanos(options.getJitterBufferMilliseconds()));
+
+        for (int session = 0; session < options.getRtpSessions(); session++) {
+            final String name = rtpSessionName(session);
+            final AppleMidiServer appleMidiServer = new AppleMidiServer(name, rtpSessionPort(session));
+            appleMidiServer.addAppleMidiSession(new MidiReceiverAppleMidiSession(jitterBuffer.newSession(name)));
+            appleMidiServer.start();
+            appleMidiServers.add(appleMidiServer);
+        }
 
     }
 
@@ -237,78 +234,13 @@ public class VideoPlayer {
             }
             midiDevice.open();
 
-            final MidiNoteReceiver receiver = new MidiNoteReceiver();
-            registerMidiNoteListener(receiver);
-            registerMidiControlChangeListener(receiver);
+            receiver = new MidiNoteReceiver();
+            receiver.registerMBean(deviceInfo.getName());
+            outputRouter.register(receiver);
 
             midiDevice.getTransmitter().setReceiver(receiver);
         } catch (final MidiUnavailableException e) {
             throw new RuntimeException(e);
         }
     }
-
-    private void registerMidiControlChangeListener(final MidiNoteReceiver receiver) {
-        receiver.registerMidiControlChangeListener(new MidiControlChangeListenerAdapter() {
-            @Override
-            public void onAllNotesOff() {
-                stop();
-            }
-        });
-    }
-
-    private void stop() {
-        SwingUtilities.invokeLater(() -> {
-            blackScreen();
-            mediaListPlayer.controls().stop();
-        });
-    }
-
-    private void registerMidiNoteListener(final MidiNoteReceiver receiver) {
-        receiver.registerMidiNoteListener(new MidiNoteListenerAdapter() {
-            @Override
-            public void onMidiNoteStart(final MidiNote midiNote) {
-                final Integer index = midiNoteMapping.get(new MidiNoteKey(midiNote));
-                if (index == null) {
-                    return;
-                }
-                SwingUtilities.invokeLater(() -> {
-                    showVideoPlayer();
-                    mediaPlayer.media().prepare(mediaListPlayer.list().media().mrl(index));
-                });
-            }
-
-            @Override
-            public void onMidiNoteEnd(final MidiNote midiNote) {
-                final Integer index = midiNoteMapping.get(new MidiNoteKey(midiNote));
-                if (index == null) {
-                    log.debug("Could not find a mapping for {}", midiNote);
-                    return;
-                }
-                log.debug("Found index {} for note {}", index, midiNote);
-                SwingUtilities.invokeLater(() -> {
-                    log.info("Starting video {}", index);
-                    showVideoPlayer();
-                    mediaListPlayer.controls().play(index);
-                    if (!options.isSound()) {
-                        mediaPlayer.audio().mute();
-                    }
-                });
-            }
-        });
-    }
-
-    private void showVideoPlayer() {
-        cardLayout.show(frame.getContentPane(), VIDEO_PLAYER);
-    }
-
-    private void initMediaList(final List<VideoMidiNoteMapping> mappings) {
-        final MediaApi mediaApi = mediaListPlayer.list().media();
-
-        midiNoteMapping.clear();
-        for (int i = 0; i < mappings.size(); i++) {
-            final VideoMidiNoteMapping mapping = mappings.get(i);
-            mediaApi.add(mapping.getFile().getAbsolutePath());
-            midiNoteMapping.put(new MidiNoteKey(mapping.getMidiNote()), i);
-        }
-    }
 }
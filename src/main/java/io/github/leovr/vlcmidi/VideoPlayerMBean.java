@@ -0,0 +1,15 @@
+package io.github.leovr.vlcmidi;
+
+public interface VideoPlayerMBean {
+
+    int getOutputs();
+
+    long getNotesWithoutMapping();
+
+    double getEdtLagMillis();
+
+    double getMaxEdtLagMillis();
+
+    long getReloads();
+
+}
@@ -1,16 +1,76 @@
 package io.github.leovr.vlcmidi;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.leovr.vlcmidi.midi.MidiNote;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+@Slf4j
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class VlcMidiSaveFile {
 
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
     private List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+
+    private List<MidiNote> setlist = new ArrayList<>();
+
+    public static Optional<VlcMidiSaveFile> read(final ObjectMapper objectMapper, final File file) {
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+
+        try (JsonParser parser = objectMapper.getFactory()
+                .createParser(new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a save file object");
+            }
+            final VlcMidiSaveFile saveFile = new VlcMidiSaveFile();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("mappings".equals(fieldName)) {
+                    saveFile.setMappings(readList(parser, objectMapper.readerFor(VideoMidiNoteMapping.class)));
+                } else if ("setlist".equals(fieldName)) {
+                    saveFile.setSetlist(readList(parser, objectMapper.readerFor(MidiNote.class)));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return Optional.of(saveFile);
+        } catch (final IOException e) {
+            log.error("Could not read save file: {}", file, e);
+        }
+        return Optional.empty();
+    }
+
+    private static <T> List<T> readList(final JsonParser parser, final ObjectReader reader) throws IOException {
+        final List<T> values = new ArrayList<>();
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return values;
+        }
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array");
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(reader.readValue(parser));
+        }
+        return values;
+    }
 }
@@ -0,0 +1,22 @@
+package io.github.leovr.vlcmidi.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+public class CueStatistics {
+
+    @Getter
+    private final LatencyHistogram startError = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram seekCost = new LatencyHistogram();
+
+    public void record(final long cueMillis, final long startedAtMillis, final long seekNanos) {
+        startError.record(TimeUnit.MILLISECONDS.toNanos(Math.abs(startedAtMillis - cueMillis)));
+        seekCost.record(seekNanos);
+    }
+
+    public String report() {
+        return String.format("Cue points: start error %s, seek cost %s", startError.summary(), seekCost.summary());
+    }
+}
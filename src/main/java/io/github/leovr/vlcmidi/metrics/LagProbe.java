@@ -0,0 +1,46 @@
+package io.github.leovr.vlcmidi.metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LagProbe {
+
+    private final Executor target;
+    private final Runnable measurement = this::measure;
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile long postedNanos;
+    private volatile long lastLagNanos;
+
+    public LagProbe(final Executor target) {
+        this.target = target;
+    }
+
+    public void sample() {
+        if (postedNanos != 0) {
+            return;
+        }
+        postedNanos = System.nanoTime();
+        target.execute(measurement);
+    }
+
+    public long getLagNanos() {
+        final long posted = postedNanos;
+        return posted != 0 ? Math.max(lastLagNanos, System.nanoTime() - posted) : lastLagNanos;
+    }
+
+    public long getMaxLagNanos() {
+        return Math.max(maxLagNanos.get(), getLagNanos());
+    }
+
+    private void measure() {
+        final long lagNanos = System.nanoTime() - postedNanos;
+        lastLagNanos = lagNanos;
+        postedNanos = 0;
+        long currentMax;
+        while (lagNanos > (currentMax = maxLagNanos.get())) {
+            if (maxLagNanos.compareAndSet(currentMax, lagNanos)) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.leovr.vlcmidi.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+@Slf4j
+public final class MBeans {
+
+    private static final String DOMAIN = "io.github.leovr.vlcmidi";
+
+    private MBeans() {
+    }
+
+    public static ObjectName register(final Object mbean, final String type, final String name) {
+        try {
+            final ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+            return objectName;
+        } catch (final JMException e) {
+            log.warn("Could not register MBean {} {}", type, name, e);
+            return null;
+        }
+    }
+
+    public static void unregister(final ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (final JMException e) {
+            log.debug("Could not unregister MBean {}", objectName, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.leovr.vlcmidi.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RenderStatistics {
+
+    private final AtomicLong decodedFrames = new AtomicLong();
+    private final AtomicLong renderedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong missedDeadlines = new AtomicLong();
+    @Getter
+    private final LatencyHistogram presentationLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram compositingTime = new LatencyHistogram();
+
+    public void decoded() {
+        decodedFrames.incrementAndGet();
+    }
+
+    public void dropped() {
+        droppedFrames.incrementAndGet();
+    }
+
+    public void rendered(final long decodedNanos) {
+        renderedFrames.incrementAndGet();
+        presentationLatency.record(System.nanoTime() - decodedNanos);
+    }
+
+    public void composited(final long nanos, final long deadlineNanos) {
+        compositingTime.record(nanos);
+        if (nanos > deadlineNanos) {
+            missedDeadlines.incrementAndGet();
+        }
+    }
+
+    public long getDecodedFrames() {
+        return decodedFrames.get();
+    }
+
+    public long getRenderedFrames() {
+        return renderedFrames.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    public long getMissedDeadlines() {
+        return missedDeadlines.get();
+    }
+
+    public void reset() {
+        decodedFrames.set(0);
+        renderedFrames.set(0);
+        droppedFrames.set(0);
+        missedDeadlines.set(0);
+        presentationLatency.reset();
+        compositingTime.reset();
+    }
+
+    public String report() {
+        final String frames = String.format("Frames: %d decoded, %d rendered, %d dropped, presentation latency %s",
+                decodedFrames.get(), renderedFrames.get(), droppedFrames.get(), presentationLatency.summary());
+        if (compositingTime.getCount() == 0) {
+            return frames;
+        }
+        return String.format("%s; compositing %s, %d missed deadlines", frames, compositingTime.summary(),
+                missedDeadlines.get());
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.leovr.vlcmidi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class TriggerLatencyRecorder {
+
+    private final LatencyHistogram receiveToDispatch = new LatencyHistogram();
+    private final LatencyHistogram dispatchToPlay = new LatencyHistogram();
+    private final LatencyHistogram playToFirstFrame = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private volatile List<String> clipNames = new ArrayList<>();
+    private volatile AtomicReferenceArray<LatencyHistogram> clipTotals = new AtomicReferenceArray<>(0);
+
+    public void setClipNames(final List<String> clipNames) {
+        final List<String> previousClipNames = this.clipNames;
+        final AtomicReferenceArray<LatencyHistogram> previousClipTotals = clipTotals;
+        final AtomicReferenceArray<LatencyHistogram> keptClipTotals = new AtomicReferenceArray<>(clipNames.size());
+        for (int i = 0; i < Math.min(previousClipTotals.length(), clipNames.size()); i++) {
+            if (i < previousClipNames.size() && Objects.equals(previousClipNames.get(i), clipNames.get(i))) {
+                keptClipTotals.set(i, previousClipTotals.get(i));
+            }
+        }
+        this.clipNames = new ArrayList<>(clipNames);
+        clipTotals = keptClipTotals;
+    }
+
+    public void record(final int clip, final long receivedNanos, final long dispatchedNanos, final long playNanos,
+                       final long firstFrameNanos) {
+        receiveToDispatch.record(dispatchedNanos - receivedNanos);
+        dispatchToPlay.record(playNanos - dispatchedNanos);
+        playToFirstFrame.record(firstFrameNanos - playNanos);
+        total.record(firstFrameNanos - receivedNanos);
+        final LatencyHistogram clipTotal = clipTotal(clip);
+        if (clipTotal != null) {
+            clipTotal.record(firstFrameNanos - receivedNanos);
+        }
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    public String report() {
+        final StringBuilder report = new StringBuilder();
+        report.append("Note to first frame: ").append(total.summary());
+        report.append("\n  receive to dispatch: ").append(receiveToDispatch.summary());
+        report.append("\n  dispatch to play: ").append(dispatchToPlay.summary());
+        report.append("\n  play to first frame: ").append(playToFirstFrame.summary());
+        final AtomicReferenceArray<LatencyHistogram> currentClipTotals = clipTotals;
+        final List<String> currentClipNames = clipNames;
+        for (int i = 0; i < currentClipTotals.length(); i++) {
+            final LatencyHistogram histogram = currentClipTotals.get(i);
+            if (histogram != null && i < currentClipNames.size()) {
+                report.append("\n  clip ").append(i).append(" (").append(currentClipNames.get(i)).append("): ")
+                        .append(histogram.summary());
+            }
+        }
+        return report.toString();
+    }
+
+    private LatencyHistogram clipTotal(final int clip) {
+        final AtomicReferenceArray<LatencyHistogram> currentClipTotals = clipTotals;
+        if (clip < 0 || clip >= currentClipTotals.length()) {
+            return null;
+        }
+        LatencyHistogram histogram = currentClipTotals.get(clip);
+        if (histogram == null) {
+            currentClipTotals.compareAndSet(clip, null, new LatencyHistogram());
+            histogram = currentClipTotals.get(clip);
+        }
+        return histogram;
+    }
+}
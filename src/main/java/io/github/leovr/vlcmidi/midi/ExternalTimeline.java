@@ -0,0 +1,79 @@
+package io.github.leovr.vlcmidi.midi;
+
+import java.util.concurrent.TimeUnit;
+
+public class ExternalTimeline extends MidiTimingListenerAdapter {
+
+    private static final int CLOCKS_PER_QUARTER = 24;
+    private static final int CLOCKS_PER_SIXTEENTH = 6;
+    private static final long TIMECODE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long clockTickNanos;
+    private long clockTicks;
+    private volatile boolean clockRunning;
+    private volatile boolean timecodeRunning;
+    private volatile long updatedNanos;
+    private volatile long positionNanos;
+
+    public ExternalTimeline(final double clockBeatsPerMinute) {
+        clockTickNanos = (long) (TimeUnit.MINUTES.toNanos(1) / clockBeatsPerMinute / CLOCKS_PER_QUARTER);
+    }
+
+    @Override
+    public void onTimingClock(final long timeStamp) {
+        if (clockRunning) {
+            clockTicks++;
+            update(clockTicks * clockTickNanos);
+        }
+    }
+
+    @Override
+    public void onStart(final long timeStamp) {
+        clockTicks = 0;
+        update(0);
+        clockRunning = true;
+    }
+
+    @Override
+    public void onContinue(final long timeStamp) {
+        clockRunning = true;
+    }
+
+    @Override
+    public void onStop(final long timeStamp) {
+        clockRunning = false;
+    }
+
+    @Override
+    public void onSongPosition(final int sixteenths, final long timeStamp) {
+        clockTicks = (long) sixteenths * CLOCKS_PER_SIXTEENTH;
+        update(clockTicks * clockTickNanos);
+    }
+
+    @Override
+    public void onTimecode(final long positionNanos, final boolean running, final long timeStamp) {
+        timecodeRunning = running;
+        update(positionNanos);
+    }
+
+    public boolean isRunning() {
+        return clockRunning || (timecodeRunning && System.nanoTime() - updatedNanos < TIMECODE_TIMEOUT_NANOS);
+    }
+
+    public long positionNanos() {
+        final long position = positionNanos;
+        final long sinceUpdate = System.nanoTime() - updatedNanos;
+        if (clockRunning) {
+            return position + Math.min(sinceUpdate, clockTickNanos);
+        }
+        if (timecodeRunning) {
+            return position + Math.min(sinceUpdate, TIMECODE_TIMEOUT_NANOS);
+        }
+        return position;
+    }
+
+    private void update(final long position) {
+        updatedNanos = System.nanoTime();
+        positionNanos = position;
+    }
+}
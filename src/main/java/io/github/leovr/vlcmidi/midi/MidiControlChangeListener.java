@@ -4,4 +4,6 @@ public interface MidiControlChangeListener {
 
     void onAllNotesOff();
 
+    void onControlChange(final int channel, final int controller, final int value, final long timeStamp);
+
 }
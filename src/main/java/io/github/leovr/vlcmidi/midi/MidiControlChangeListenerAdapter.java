@@ -6,4 +6,9 @@ public class MidiControlChangeListenerAdapter implements MidiControlChangeListen
     public void onAllNotesOff() {
 
     }
+
+    @Override
+    public void onControlChange(final int channel, final int controller, final int value, final long timeStamp) {
+
+    }
 }
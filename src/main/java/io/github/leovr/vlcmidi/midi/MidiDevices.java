@@ -0,0 +1,37 @@
+package io.github.leovr.vlcmidi.midi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sound.midi.MidiDevice;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.MidiUnavailableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+public final class MidiDevices {
+
+    private MidiDevices() {
+    }
+
+    public static List<MidiDevice.Info> inputs() {
+        final MidiDevice.Info[] deviceInfos = MidiSystem.getMidiDeviceInfo();
+        return Arrays.stream(deviceInfos).filter(info -> {
+            try {
+                return MidiSystem.getMidiDevice(info).getMaxTransmitters() != 0;
+            } catch (MidiUnavailableException e) {
+                log.error("Could not get MIDI device: {}", info);
+            }
+            return false;
+        }).collect(Collectors.toList());
+    }
+
+    public static Optional<MidiDevice.Info> findInput(final List<MidiDevice.Info> inputs, final String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return inputs.stream().filter(info -> name.equals(info.getName())).findFirst();
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.leovr.vlcmidi.midi;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Receiver;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+public class MidiJitterBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int JITTER_MULTIPLIER = 3;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Receiver downstream;
+    private final long maxDelayNanos;
+    private volatile RtpMidiSessionReceiver[] sessions = new RtpMidiSessionReceiver[0];
+    private final AtomicLong released = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private MidiMessage[] messages = new MidiMessage[INITIAL_CAPACITY];
+    private long[] localNanos = new long[INITIAL_CAPACITY];
+    private long[] sequence = new long[INITIAL_CAPACITY];
+    private long nextSequence;
+    private int[] heap = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int size;
+    private int freeCount;
+    private long lastReleasedNanos = Long.MIN_VALUE;
+    private volatile long delayNanos;
+
+    public MidiJitterBuffer(final Receiver downstream, final long maxDelayNanos) {
+        this.downstream = downstream;
+        this.maxDelayNanos = maxDelayNanos;
+        for (int i = 0; i < INITIAL_CAPACITY; i++) {
+            freeSlots[freeCount++] = INITIAL_CAPACITY - 1 - i;
+        }
+        thread = new Thread(this::run, "midi-jitter-buffer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    public synchronized RtpMidiSessionReceiver newSession(final String name) {
+        final RtpMidiSessionReceiver session = new RtpMidiSessionReceiver(name, this);
+        final RtpMidiSessionReceiver[] current = sessions;
+        final RtpMidiSessionReceiver[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = session;
+        sessions = updated;
+        return session;
+    }
+
+    synchronized void removeSession(final RtpMidiSessionReceiver session) {
+        sessions = Arrays.stream(sessions).filter(existing -> existing != session)
+                .toArray(RtpMidiSessionReceiver[]::new);
+    }
+
+    void offer(final RtpMidiSessionReceiver session, final MidiMessage message, final long eventNanos) {
+        final boolean newHead;
+        synchronized (this) {
+            if (eventNanos < lastReleasedNanos) {
+                session.late();
+            }
+            if (freeCount == 0) {
+                grow();
+            }
+            final int slot = freeSlots[--freeCount];
+            messages[slot] = message;
+            localNanos[slot] = eventNanos;
+            sequence[slot] = nextSequence++;
+            heap[size] = slot;
+            siftUp(size++);
+            newHead = heap[0] == slot;
+        }
+        if (newHead) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    public long getReleased() {
+        return released.get();
+    }
+
+    public String report() {
+        final StringBuilder report = new StringBuilder(String.format(
+                "RTP-MIDI jitter buffer: %d released, playout delay %.2f ms", getReleased(), delayNanos / 1e6));
+        for (final RtpMidiSessionReceiver session : sessions) {
+            report.append(System.lineSeparator()).append("  ").append(session.report());
+        }
+        return report.toString();
+    }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            final long targetDelayNanos = targetDelay();
+            delayNanos = targetDelayNanos;
+            final MidiMessage message;
+            final long eventNanos;
+            final long waitNanos;
+            synchronized (this) {
+                if (size == 0) {
+                    message = null;
+                    eventNanos = 0;
+                    waitNanos = IDLE_PARK_NANOS;
+                } else {
+                    final int slot = heap[0];
+                    final long remainingNanos = localNanos[slot] + targetDelayNanos - System.nanoTime();
+                    if (remainingNanos > 0) {
+                        message = null;
+                        eventNanos = 0;
+                        waitNanos = Math.min(remainingNanos, IDLE_PARK_NANOS);
+                    } else {
+                        message = messages[slot];
+                        eventNanos = localNanos[slot];
+                        messages[slot] = null;
+                        heap[0] = heap[--size];
+                        siftDown(0);
+                        freeSlots[freeCount++] = slot;
+                        lastReleasedNanos = Math.max(lastReleasedNanos, eventNanos);
+                        waitNanos = 0;
+                    }
+                }
+            }
+            if (message != null) {
+                released.incrementAndGet();
+                try {
+                    downstream.send(message, TimeUnit.NANOSECONDS.toMicros(eventNanos));
+                } catch (final RuntimeException e) {
+                    log.error("Error handling MIDI message", e);
+                }
+            } else {
+                LockSupport.parkNanos(waitNanos);
+            }
+        }
+    }
+
+    private long targetDelay() {
+        long jitterNanos = 0;
+        for (final RtpMidiSessionReceiver session : sessions) {
+            jitterNanos = Math.max(jitterNanos, session.getJitterEstimateNanos());
+        }
+        return Math.min(maxDelayNanos, jitterNanos * JITTER_MULTIPLIER);
+    }
+
+    private void grow() {
+        final int capacity = messages.length;
+        final int newCapacity = capacity * 2;
+        log.warn("Growing MIDI jitter buffer to {} events", newCapacity);
+        messages = Arrays.copyOf(messages, newCapacity);
+        localNanos = Arrays.copyOf(localNanos, newCapacity);
+        sequence = Arrays.copyOf(sequence, newCapacity);
+        heap = Arrays.copyOf(heap, newCapacity);
+        freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+        for (int slot = newCapacity - 1; slot >= capacity; slot--) {
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    private boolean before(final int slot, final int other) {
+        return localNanos[slot] < localNanos[other] ||
+                (localNanos[slot] == localNanos[other] && sequence[slot] < sequence[other]);
+    }
+
+    private void siftUp(int index) {
+        final int slot = heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (!before(slot, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int index) {
+        if (size == 0) {
+            return;
+        }
+        final int slot = heap[index];
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], slot)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+}
@@ -1,9 +1,12 @@
 package io.github.leovr.vlcmidi.midi;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Arrays;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,4 +18,21 @@ public class MidiNote {
     private int octave;
     private int channel;
     private boolean start;
+
+    public static MidiNote fromNoteNumber(final int channel, final int noteNumber, final boolean start) {
+        return new MidiNote(NOTES[noteNumber % 12], (noteNumber / 12) - 2, channel, start);
+    }
+
+    public static int noteNumber(final String note, final int octave) {
+        final int noteIndex = Arrays.asList(NOTES).indexOf(note);
+        if (noteIndex < 0) {
+            return -1;
+        }
+        return (octave + 2) * 12 + noteIndex;
+    }
+
+    @JsonIgnore
+    public int getNoteNumber() {
+        return noteNumber(note, octave);
+    }
 }
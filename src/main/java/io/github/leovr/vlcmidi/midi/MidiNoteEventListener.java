@@ -0,0 +1,9 @@
+package io.github.leovr.vlcmidi.midi;
+
+public interface MidiNoteEventListener {
+
+    void onNoteStart(final int channel, final int noteNumber, final int velocity, final long timeStamp);
+
+    void onNoteEnd(final int channel, final int noteNumber, final int velocity, final long timeStamp);
+
+}
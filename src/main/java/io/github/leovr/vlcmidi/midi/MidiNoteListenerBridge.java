@@ -0,0 +1,25 @@
+package io.github.leovr.vlcmidi.midi;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class MidiNoteListenerBridge implements MidiNoteEventListener {
+
+    @Getter
+    private final MidiNoteListener delegate;
+
+    @Override
+    public void onNoteStart(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+        final MidiNote note = MidiNote.fromNoteNumber(channel, noteNumber, true);
+        delegate.onMidiNote(note);
+        delegate.onMidiNoteStart(note);
+    }
+
+    @Override
+    public void onNoteEnd(final int channel, final int noteNumber, final int velocity, final long timeStamp) {
+        final MidiNote note = MidiNote.fromNoteNumber(channel, noteNumber, false);
+        delegate.onMidiNote(note);
+        delegate.onMidiNoteEnd(note);
+    }
+}
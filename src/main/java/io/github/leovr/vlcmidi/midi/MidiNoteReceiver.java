@@ -1,72 +1,263 @@
 package io.github.leovr.vlcmidi.midi;
 
+import io.github.leovr.vlcmidi.metrics.MBeans;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.management.ObjectName;
 import javax.sound.midi.MidiMessage;
 import javax.sound.midi.Receiver;
 import javax.sound.midi.ShortMessage;
-import java.util.ArrayList;
-import java.util.List;
+import javax.sound.midi.SysexMessage;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
-public class MidiNoteReceiver implements Receiver {
+public class MidiNoteReceiver implements Receiver, MidiNoteReceiverMBean {
 
-    private final List<MidiNoteListener> midiNoteListeners = new ArrayList<>();
-    private final List<MidiControlChangeListener> midiControlChangeListeners = new ArrayList<>();
+    private static final int ALL_NOTES_OFF = 123;
+
+    private volatile MidiNoteEventListener[] midiNoteEventListeners = new MidiNoteEventListener[0];
+    private volatile MidiControlChangeListener[] midiControlChangeListeners = new MidiControlChangeListener[0];
+    private volatile MidiTimingListener[] midiTimingListeners = new MidiTimingListener[0];
+    private final MidiTimecodeDecoder timecodeDecoder = new MidiTimecodeDecoder();
+    private final LongAdder noteOnMessages = new LongAdder();
+    private final LongAdder noteOffMessages = new LongAdder();
+    private final LongAdder controlChangeMessages = new LongAdder();
+    private final LongAdder systemMessages = new LongAdder();
+    private final LongAdder sysexMessages = new LongAdder();
+    private final LongAdder otherMessages = new LongAdder();
+    private ObjectName objectName;
 
     @Override
     public void send(final MidiMessage message, final long timeStamp) {
+        if (message instanceof SysexMessage) {
+            sysexMessages.increment();
+            handleSysex(message.getMessage(), timeStamp);
+            return;
+        }
         if (!(message instanceof ShortMessage)) {
+            otherMessages.increment();
             return;
         }
         final ShortMessage shortMessage = (ShortMessage) message;
-        switch (shortMessage.getCommand()) {
+        decode(shortMessage.getStatus(), shortMessage.getData1(), shortMessage.getData2(), timeStamp);
+    }
+
+    public void decode(final int status, final int data1, final int data2, final long timeStamp) {
+        final int channel = status & 0x0F;
+        switch (status & 0xF0) {
             case ShortMessage.NOTE_ON:
+                noteOnMessages.increment();
+                handleNormalNote(channel, data1 & 0x7F, data2 & 0x7F, true, timeStamp);
+                break;
             case ShortMessage.NOTE_OFF:
-                handleNormalNote(shortMessage);
+                noteOffMessages.increment();
+                handleNormalNote(channel, data1 & 0x7F, data2 & 0x7F, false, timeStamp);
                 break;
             case ShortMessage.CONTROL_CHANGE:
-                handleControlChange(shortMessage);
+                controlChangeMessages.increment();
+                handleControlChange(channel, data1 & 0x7F, data2 & 0x7F, timeStamp);
+                break;
+            case 0xF0:
+                systemMessages.increment();
+                handleSystemMessage(status, data1 & 0x7F, data2 & 0x7F, timeStamp);
+                break;
+            default:
+                otherMessages.increment();
+                break;
+        }
+    }
+
+    private void handleSystemMessage(final int status, final int data1, final int data2, final long timeStamp) {
+        final MidiTimingListener[] listeners = midiTimingListeners;
+        switch (status) {
+            case ShortMessage.TIMING_CLOCK:
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].onTimingClock(timeStamp);
+                }
+                break;
+            case ShortMessage.START:
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].onStart(timeStamp);
+                }
+                break;
+            case ShortMessage.CONTINUE:
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].onContinue(timeStamp);
+                }
+                break;
+            case ShortMessage.STOP:
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].onStop(timeStamp);
+                }
+                break;
+            case ShortMessage.SONG_POSITION_POINTER:
+                for (int i = 0; i < listeners.length; i++) {
+                    listeners[i].onSongPosition(data1 | (data2 << 7), timeStamp);
+                }
+                break;
+            case ShortMessage.MIDI_TIME_CODE:
+                handleTimecode(timecodeDecoder.quarterFrame(data1), true, timeStamp);
                 break;
         }
     }
 
-    private void handleControlChange(final ShortMessage message) {
-        log.debug("Received control change message: {} {}", message.getData1(), message.getData2());
-        if (message.getData1() == 123 && message.getData2() == 0) {
-            midiControlChangeListeners.forEach(MidiControlChangeListener::onAllNotesOff);
+    private void handleSysex(final byte[] message, final long timeStamp) {
+        handleTimecode(MidiTimecodeDecoder.fullFrame(message), false, timeStamp);
+    }
+
+    private void handleTimecode(final long positionNanos, final boolean running, final long timeStamp) {
+        if (positionNanos == MidiTimecodeDecoder.INCOMPLETE) {
+            return;
+        }
+        final MidiTimingListener[] listeners = midiTimingListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onTimecode(positionNanos, running, timeStamp);
+        }
+    }
+
+    private void handleControlChange(final int channel, final int controller, final int value,
+                                     final long timeStamp) {
+        if (log.isTraceEnabled()) {
+            log.trace("Received control change message: {} {}", controller, value);
+        }
+        final MidiControlChangeListener[] listeners = midiControlChangeListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onControlChange(channel, controller, value, timeStamp);
+        }
+        if (controller == ALL_NOTES_OFF && value == 0) {
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onAllNotesOff();
+            }
         }
     }
 
-    private void handleNormalNote(final ShortMessage message) {
-        final int octave = (message.getData1() / 12) - 2;
-        final int noteIndex = (message.getData1() % 12);
-        final String noteName = MidiNote.NOTES[noteIndex];
-        final boolean start = message.getCommand() == ShortMessage.NOTE_ON;
-        final MidiNote note = new MidiNote(noteName, octave, message.getChannel(), start);
-        log.debug("Received note: {}", note);
-        midiNoteListeners.forEach(midiNoteListener -> midiNoteListener.onMidiNote(note));
+    private void handleNormalNote(final int channel, final int noteNumber, final int velocity, final boolean start,
+                                  final long timeStamp) {
+        if (log.isTraceEnabled()) {
+            log.trace("Received note: {} on channel {} start {}", noteNumber, channel, start);
+        }
+        final MidiNoteEventListener[] listeners = midiNoteEventListeners;
         if (start) {
-            midiNoteListeners.forEach(midiNoteListener -> midiNoteListener.onMidiNoteStart(note));
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onNoteStart(channel, noteNumber, velocity, timeStamp);
+            }
         } else {
-            midiNoteListeners.forEach(midiNoteListener -> midiNoteListener.onMidiNoteEnd(note));
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onNoteEnd(channel, noteNumber, velocity, timeStamp);
+            }
+        }
+    }
+
+    public synchronized void registerMidiNoteEventListener(final MidiNoteEventListener listener) {
+        midiNoteEventListeners = add(midiNoteEventListeners, listener);
+    }
+
+    public synchronized boolean unregisterMidiNoteEventListener(final MidiNoteEventListener listener) {
+        final MidiNoteEventListener[] listeners = remove(midiNoteEventListeners, listener);
+        if (listeners == midiNoteEventListeners) {
+            return false;
         }
+        midiNoteEventListeners = listeners;
+        return true;
     }
 
     public void registerMidiNoteListener(final MidiNoteListener listener) {
-        midiNoteListeners.add(listener);
+        registerMidiNoteEventListener(new MidiNoteListenerBridge(listener));
+    }
+
+    public synchronized boolean unregisterMidiNoteListener(final MidiNoteListener listener) {
+        return Arrays.stream(midiNoteEventListeners).filter(MidiNoteListenerBridge.class::isInstance)
+                .map(MidiNoteListenerBridge.class::cast).filter(bridge -> bridge.getDelegate() == listener)
+                .findFirst().map(this::unregisterMidiNoteEventListener).orElse(false);
     }
 
-    public boolean unregisterMidiNoteListener(final MidiNoteListener listener) {
-        return midiNoteListeners.remove(listener);
+    public synchronized void registerMidiControlChangeListener(final MidiControlChangeListener listener) {
+        midiControlChangeListeners = add(midiControlChangeListeners, listener);
     }
 
-    public void registerMidiControlChangeListener(final MidiControlChangeListener listener) {
-        midiControlChangeListeners.add(listener);
+    public synchronized boolean unregisterMidiControlChangeListener(final MidiControlChangeListener listener) {
+        final MidiControlChangeListener[] listeners = remove(midiControlChangeListeners, listener);
+        if (listeners == midiControlChangeListeners) {
+            return false;
+        }
+        midiControlChangeListeners = listeners;
+        return true;
+    }
+
+    public synchronized void registerMidiTimingListener(final MidiTimingListener listener) {
+        midiTimingListeners = add(midiTimingListeners, listener);
+    }
+
+    public synchronized boolean unregisterMidiTimingListener(final MidiTimingListener listener) {
+        final MidiTimingListener[] listeners = remove(midiTimingListeners, listener);
+        if (listeners == midiTimingListeners) {
+            return false;
+        }
+        midiTimingListeners = listeners;
+        return true;
+    }
+
+    public synchronized void registerMBean(final String name) {
+        unregisterMBean();
+        objectName = MBeans.register(this, "MidiNoteReceiver", name);
+    }
+
+    public synchronized void unregisterMBean() {
+        MBeans.unregister(objectName);
+        objectName = null;
+    }
+
+    @Override
+    public long getNoteOnMessages() {
+        return noteOnMessages.sum();
+    }
+
+    @Override
+    public long getNoteOffMessages() {
+        return noteOffMessages.sum();
+    }
+
+    @Override
+    public long getControlChangeMessages() {
+        return controlChangeMessages.sum();
+    }
+
+    @Override
+    public long getSystemMessages() {
+        return systemMessages.sum();
     }
 
-    public boolean unregisterMidiControlChangeListener(final MidiControlChangeListener listener) {
-        return midiControlChangeListeners.remove(listener);
+    @Override
+    public long getSysexMessages() {
+        return sysexMessages.sum();
+    }
+
+    @Override
+    public long getOtherMessages() {
+        return otherMessages.sum();
+    }
+
+    @Override
+    public int getNoteEventListeners() {
+        return midiNoteEventListeners.length;
+    }
+
+    private static <T> T[] add(final T[] listeners, final T listener) {
+        final T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    private static <T> T[] remove(final T[] listeners, final T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                final T[] result = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, result, i, listeners.length - i - 1);
+                return result;
+            }
+        }
+        return listeners;
     }
 
     @Override
@@ -0,0 +1,19 @@
+package io.github.leovr.vlcmidi.midi;
+
+public interface MidiNoteReceiverMBean {
+
+    long getNoteOnMessages();
+
+    long getNoteOffMessages();
+
+    long getControlChangeMessages();
+
+    long getSystemMessages();
+
+    long getSysexMessages();
+
+    long getOtherMessages();
+
+    int getNoteEventListeners();
+
+}
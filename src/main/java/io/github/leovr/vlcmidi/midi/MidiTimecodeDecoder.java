@@ -0,0 +1,59 @@
+package io.github.leovr.vlcmidi.midi;
+
+import java.util.concurrent.TimeUnit;
+
+class MidiTimecodeDecoder {
+
+    static final long INCOMPLETE = -1;
+
+    private static final int ALL_PIECES = 0xFF;
+    private static final double[] FRAME_RATES = new double[]{24, 25, 30000 / 1001.0, 30};
+    private static final int DROP_FRAME = 2;
+
+    private final int[] pieces = new int[8];
+    private int receivedPieces;
+
+    long quarterFrame(final int data1) {
+        final int piece = (data1 >> 4) & 0x07;
+        pieces[piece] = data1 & 0x0F;
+        receivedPieces |= 1 << piece;
+        if (piece != 7) {
+            return INCOMPLETE;
+        }
+        final boolean complete = receivedPieces == ALL_PIECES;
+        receivedPieces = 0;
+        if (!complete) {
+            return INCOMPLETE;
+        }
+        final int rateType = (pieces[7] >> 1) & 0x03;
+        final int frames = pieces[0] | (pieces[1] << 4);
+        final int seconds = pieces[2] | (pieces[3] << 4);
+        final int minutes = pieces[4] | (pieces[5] << 4);
+        final int hours = pieces[6] | ((pieces[7] & 0x01) << 4);
+        return toNanos(hours, minutes, seconds, frames + 2, rateType);
+    }
+
+    static long fullFrame(final byte[] message) {
+        if (message.length < 10 || (message[0] & 0xFF) != 0xF0 || (message[1] & 0xFF) != 0x7F ||
+                message[3] != 0x01 || message[4] != 0x01) {
+            return INCOMPLETE;
+        }
+        final int rateType = (message[5] >> 5) & 0x03;
+        return toNanos(message[5] & 0x1F, message[6] & 0x3F, message[7] & 0x3F, message[8] & 0x1F, rateType);
+    }
+
+    private static long toNanos(final int hours, final int minutes, final int seconds, final int frames,
+                                final int rateType) {
+        final double frameRate = FRAME_RATES[rateType];
+        final long frameNumber;
+        if (rateType == DROP_FRAME) {
+            final int totalMinutes = hours * 60 + minutes;
+            frameNumber = 108000L * hours + 1800L * minutes + 30L * seconds + frames -
+                    2L * (totalMinutes - totalMinutes / 10);
+        } else {
+            final int nominalRate = (int) Math.round(frameRate);
+            frameNumber = ((hours * 60L + minutes) * 60L + seconds) * nominalRate + frames;
+        }
+        return (long) (frameNumber * TimeUnit.SECONDS.toNanos(1) / frameRate);
+    }
+}
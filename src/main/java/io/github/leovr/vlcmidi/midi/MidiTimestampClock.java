@@ -0,0 +1,32 @@
+package io.github.leovr.vlcmidi.midi;
+
+import java.util.concurrent.TimeUnit;
+
+public class MidiTimestampClock {
+
+    private static final long MAXIMUM_CREEP_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long RESYNC_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private boolean synchronised;
+    private long offsetNanos;
+
+    public long toLocalNanos(final long timeStamp, final long arrivalNanos) {
+        if (timeStamp < 0) {
+            return arrivalNanos;
+        }
+        final long candidateOffsetNanos = arrivalNanos - TimeUnit.MICROSECONDS.toNanos(timeStamp);
+        if (!synchronised || Math.abs(candidateOffsetNanos - offsetNanos) > RESYNC_NANOS) {
+            offsetNanos = candidateOffsetNanos;
+            synchronised = true;
+        } else if (candidateOffsetNanos < offsetNanos) {
+            offsetNanos = candidateOffsetNanos;
+        } else {
+            offsetNanos += Math.min(candidateOffsetNanos - offsetNanos, MAXIMUM_CREEP_NANOS);
+        }
+        return TimeUnit.MICROSECONDS.toNanos(timeStamp) + offsetNanos;
+    }
+
+    public void reset() {
+        synchronised = false;
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.leovr.vlcmidi.midi;
+
+public interface MidiTimingListener {
+
+    void onTimingClock(final long timeStamp);
+
+    void onStart(final long timeStamp);
+
+    void onContinue(final long timeStamp);
+
+    void onStop(final long timeStamp);
+
+    void onSongPosition(final int sixteenths, final long timeStamp);
+
+    void onTimecode(final long positionNanos, final boolean running, final long timeStamp);
+
+}
@@ -0,0 +1,34 @@
+package io.github.leovr.vlcmidi.midi;
+
+public class MidiTimingListenerAdapter implements MidiTimingListener {
+
+    @Override
+    public void onTimingClock(final long timeStamp) {
+
+    }
+
+    @Override
+    public void onStart(final long timeStamp) {
+
+    }
+
+    @Override
+    public void onContinue(final long timeStamp) {
+
+    }
+
+    @Override
+    public void onStop(final long timeStamp) {
+
+    }
+
+    @Override
+    public void onSongPosition(final int sixteenths, final long timeStamp) {
+
+    }
+
+    @Override
+    public void onTimecode(final long positionNanos, final boolean running, final long timeStamp) {
+
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.leovr.vlcmidi.midi;
+
+import io.github.leovr.vlcmidi.metrics.LatencyHistogram;
+import lombok.Getter;
+
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Receiver;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RtpMidiSessionReceiver implements Receiver {
+
+    private static final int JITTER_GAIN = 16;
+
+    @Getter
+    private final String name;
+    private final MidiJitterBuffer jitterBuffer;
+    private final MidiTimestampClock timestampClock = new MidiTimestampClock();
+    @Getter
+    private final LatencyHistogram jitter = new LatencyHistogram();
+    private final AtomicLong packets = new AtomicLong();
+    private final AtomicLong reorders = new AtomicLong();
+    private final AtomicLong late = new AtomicLong();
+    private long lastTimeStamp = -1;
+    private long lastArrivalNanos;
+    private volatile long jitterEstimateNanos;
+
+    RtpMidiSessionReceiver(final String name, final MidiJitterBuffer jitterBuffer) {
+        this.name = name;
+        this.jitterBuffer = jitterBuffer;
+    }
+
+    @Override
+    public void send(final MidiMessage message, final long timeStamp) {
+        final long arrivalNanos = System.nanoTime();
+        packets.incrementAndGet();
+        if (timeStamp >= 0 && lastTimeStamp >= 0) {
+            if (timeStamp < lastTimeStamp) {
+                reorders.incrementAndGet();
+            }
+            final long transitDifference = Math.abs((arrivalNanos - lastArrivalNanos) -
+                    TimeUnit.MICROSECONDS.toNanos(timeStamp - lastTimeStamp));
+            jitter.record(transitDifference);
+            jitterEstimateNanos += (transitDifference - jitterEstimateNanos) / JITTER_GAIN;
+        }
+        if (timeStamp >= 0) {
+            lastTimeStamp = timeStamp;
+            lastArrivalNanos = arrivalNanos;
+        }
+        jitterBuffer.offer(this, message, timestampClock.toLocalNanos(timeStamp, arrivalNanos));
+    }
+
+    @Override
+    public void close() {
+        jitterBuffer.removeSession(this);
+    }
+
+    long getJitterEstimateNanos() {
+        return jitterEstimateNanos;
+    }
+
+    void late() {
+        late.incrementAndGet();
+    }
+
+    public long getPackets() {
+        return packets.get();
+    }
+
+    public long getReorders() {
+        return reorders.get();
+    }
+
+    public long getLate() {
+        return late.get();
+    }
+
+    public String report() {
+        return String.format("%s: %d packets, %d reordered, %d late, jitter %s", name, getPackets(), getReorders(),
+                getLate(), jitter.summary());
+    }
+}
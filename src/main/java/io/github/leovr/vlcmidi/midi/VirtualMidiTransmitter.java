@@ -0,0 +1,58 @@
+package io.github.leovr.vlcmidi.midi;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.Receiver;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Transmitter;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualMidiTransmitter implements Transmitter {
+
+    private final ShortMessage message = new ShortMessage();
+    private volatile Receiver receiver;
+
+    @Override
+    public void setReceiver(final Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public Receiver getReceiver() {
+        return receiver;
+    }
+
+    public synchronized void noteOn(final int channel, final int noteNumber, final int velocity) {
+        send(ShortMessage.NOTE_ON, channel, noteNumber, velocity);
+    }
+
+    public synchronized void noteOff(final int channel, final int noteNumber) {
+        send(ShortMessage.NOTE_OFF, channel, noteNumber, 0);
+    }
+
+    public synchronized void trigger(final int channel, final int noteNumber) {
+        noteOn(channel, noteNumber, 127);
+        noteOff(channel, noteNumber);
+    }
+
+    public synchronized void allNotesOff(final int channel) {
+        send(ShortMessage.CONTROL_CHANGE, channel, 123, 0);
+    }
+
+    private void send(final int command, final int channel, final int data1, final int data2) {
+        final Receiver currentReceiver = receiver;
+        if (currentReceiver == null) {
+            return;
+        }
+        try {
+            message.setMessage(command, channel, data1, data2);
+        } catch (final InvalidMidiDataException e) {
+            throw new IllegalArgumentException(e);
+        }
+        currentReceiver.send(message, TimeUnit.NANOSECONDS.toMicros(System.nanoTime()));
+    }
+
+    @Override
+    public void close() {
+        receiver = null;
+    }
+}
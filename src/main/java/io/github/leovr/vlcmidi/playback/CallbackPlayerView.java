@@ -0,0 +1,148 @@
+package io.github.leovr.vlcmidi.playback;
+
+import io.github.leovr.vlcmidi.metrics.RenderStatistics;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.RV32BufferFormat;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.VolatileImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CallbackPlayerView extends JComponent implements PlayerView {
+
+    private final EmbeddedMediaPlayer mediaPlayer;
+    private final RenderStatistics renderStatistics;
+    private final Object frameLock = new Object();
+    private final AtomicLong pendingFrameNanos = new AtomicLong();
+    private BufferedImage frameImage;
+    private int[] framePixels;
+    private IntBuffer nativeFrame;
+    private VolatileImage volatileImage;
+    private volatile Component repaintTarget = this;
+
+    public CallbackPlayerView(final MediaPlayerFactory mediaPlayerFactory, final RenderStatistics renderStatistics) {
+        this.renderStatistics = renderStatistics;
+        setOpaque(true);
+        setBackground(Color.BLACK);
+        setDoubleBuffered(false);
+        mediaPlayer = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+        mediaPlayer.videoSurface().set(mediaPlayerFactory.videoSurfaces()
+                .newVideoSurface(new ViewBufferFormatCallback(), new ViewRenderCallback(), true));
+    }
+
+    @Override
+    public Component getComponent() {
+        return this;
+    }
+
+    @Override
+    public EmbeddedMediaPlayer getMediaPlayer() {
+        return mediaPlayer;
+    }
+
+    @Override
+    public void release() {
+        mediaPlayer.release();
+    }
+
+    public void setRepaintTarget(final Component repaintTarget) {
+        this.repaintTarget = repaintTarget;
+    }
+
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        graphics.setColor(getBackground());
+        graphics.fillRect(0, 0, getWidth(), getHeight());
+        paintFrame((Graphics2D) graphics, getWidth(), getHeight());
+    }
+
+    public void paintFrame(final Graphics2D graphics, final int targetWidth, final int targetHeight) {
+        final BufferedImage image;
+        synchronized (frameLock) {
+            image = frameImage;
+        }
+        if (image == null) {
+            return;
+        }
+        final long frameNanos = pendingFrameNanos.getAndSet(0);
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final double scale = Math.min((double) targetWidth / width, (double) targetHeight / height);
+        final int scaledWidth = (int) (width * scale);
+        final int scaledHeight = (int) (height * scale);
+        boolean upload = frameNanos != 0;
+        do {
+            if (volatileImage == null || volatileImage.getWidth() != width || volatileImage.getHeight() != height ||
+                    volatileImage.validate(graphics.getDeviceConfiguration()) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage = graphics.getDeviceConfiguration().createCompatibleVolatileImage(width, height);
+                upload = true;
+            }
+            if (upload || volatileImage.contentsLost()) {
+                final Graphics2D volatileGraphics = volatileImage.createGraphics();
+                synchronized (frameLock) {
+                    volatileGraphics.drawImage(frameImage, 0, 0, null);
+                }
+                volatileGraphics.dispose();
+            }
+            graphics.drawImage(volatileImage, (targetWidth - scaledWidth) / 2, (targetHeight - scaledHeight) / 2,
+                    scaledWidth, scaledHeight, null);
+        } while (volatileImage.contentsLost());
+        if (frameNanos != 0) {
+            renderStatistics.rendered(frameNanos);
+        }
+    }
+
+    private class ViewBufferFormatCallback implements BufferFormatCallback {
+
+        @Override
+        public BufferFormat getBufferFormat(final int sourceWidth, final int sourceHeight) {
+            synchronized (frameLock) {
+                frameImage = new BufferedImage(sourceWidth, sourceHeight, BufferedImage.TYPE_INT_RGB);
+                framePixels = ((DataBufferInt) frameImage.getRaster().getDataBuffer()).getData();
+            }
+            return new RV32BufferFormat(sourceWidth, sourceHeight);
+        }
+
+        @Override
+        public void allocatedBuffers(final ByteBuffer[] buffers) {
+            synchronized (frameLock) {
+                nativeFrame = buffers[0].duplicate().order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+        }
+    }
+
+    private class ViewRenderCallback implements RenderCallback {
+
+        @Override
+        public void display(final MediaPlayer mediaPlayer, final ByteBuffer[] nativeBuffers,
+                            final BufferFormat bufferFormat) {
+            renderStatistics.decoded();
+            synchronized (frameLock) {
+                if (nativeFrame == null) {
+                    return;
+                }
+                nativeFrame.rewind();
+                nativeFrame.get(framePixels, 0, Math.min(framePixels.length, nativeFrame.remaining()));
+            }
+            final Component target = repaintTarget;
+            if (pendingFrameNanos.getAndSet(System.nanoTime()) != 0 && target.isShowing()) {
+                renderStatistics.dropped();
+            }
+            target.repaint();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.leovr.vlcmidi.playback;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Value
+public class ClipCue {
+
+    public static final ClipCue NONE = new ClipCue(0, 0, -1, false, false);
+
+    private static final int REPEAT_FOREVER = 65535;
+
+    long startMillis;
+    long seekMillis;
+    long endMillis;
+    boolean loop;
+    boolean fastSeek;
+
+    public boolean isCued() {
+        return startMillis > 0;
+    }
+
+    public String[] startOptions() {
+        return startOptions(new ArrayList<>()).toArray(new String[0]);
+    }
+
+    public String[] mediaOptions() {
+        final List<String> options = startOptions(new ArrayList<>());
+        if (endMillis > 0) {
+            options.add(":stop-time=" + seconds(endMillis));
+        }
+        if (loop) {
+            options.add(":input-repeat=" + REPEAT_FOREVER);
+        }
+        return options.toArray(new String[0]);
+    }
+
+    private List<String> startOptions(final List<String> options) {
+        if (seekMillis > 0) {
+            options.add(":start-time=" + seconds(seekMillis));
+            if (fastSeek) {
+                options.add(":input-fast-seek");
+            }
+        }
+        return options;
+    }
+
+    private static String seconds(final long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.leovr.vlcmidi.playback;
+
+import io.github.leovr.vlcmidi.metrics.RenderStatistics;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.DisplayMode;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.concurrent.TimeUnit;
+
+public class FrameCompositor extends JComponent {
+
+    private static final int ALPHA_STEPS = 255;
+    private static final AlphaComposite[] ALPHAS = new AlphaComposite[ALPHA_STEPS + 1];
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private static final int FADE_TIMER_MILLIS = 8;
+
+    static {
+        for (int i = 0; i <= ALPHA_STEPS; i++) {
+            ALPHAS[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / ALPHA_STEPS);
+        }
+    }
+
+    private final RenderStatistics renderStatistics;
+    private final Timer fadeTimer;
+    private long frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / DEFAULT_REFRESH_RATE;
+    private CallbackPlayerView incoming;
+    private CallbackPlayerView outgoing;
+    private long fadeStartNanos;
+    private long fadeNanos;
+    private boolean fadingToBlack;
+    private Runnable onFaded;
+    private volatile float opacity = 1;
+
+    public FrameCompositor(final RenderStatistics renderStatistics) {
+        this.renderStatistics = renderStatistics;
+        setOpaque(true);
+        setBackground(Color.BLACK);
+        setDoubleBuffered(false);
+        fadeTimer = new Timer(FADE_TIMER_MILLIS, event -> repaint());
+        fadeTimer.setCoalesce(true);
+    }
+
+    public void attach(final PlayerView view) {
+        layer(view).setRepaintTarget(this);
+    }
+
+    public void cut(final PlayerView view, final long fadeMillis, final Runnable onHidden) {
+        finishTransition(false);
+        final CallbackPlayerView previous = incoming;
+        incoming = layer(view);
+        if (fadeMillis <= 0 || previous == null || previous == incoming) {
+            onHidden.run();
+        } else {
+            outgoing = previous;
+            startTransition(fadeMillis, onHidden);
+        }
+        repaint();
+    }
+
+    public void fadeToBlack(final long fadeMillis, final Runnable onFaded) {
+        finishTransition(false);
+        if (incoming == null || fadeMillis <= 0) {
+            onFaded.run();
+            return;
+        }
+        fadingToBlack = true;
+        startTransition(fadeMillis, onFaded);
+        repaint();
+    }
+
+    public void setOpacity(final float opacity) {
+        this.opacity = opacity;
+        repaint();
+    }
+
+    public void clear() {
+        finishTransition(false);
+        incoming = null;
+    }
+
+    public void release() {
+        fadeTimer.stop();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        final DisplayMode displayMode = getGraphicsConfiguration().getDevice().getDisplayMode();
+        final int refreshRate = displayMode.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN ?
+                displayMode.getRefreshRate() : DEFAULT_REFRESH_RATE;
+        frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / refreshRate;
+    }
+
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        final long startNanos = System.nanoTime();
+        final Graphics2D graphics2D = (Graphics2D) graphics;
+        graphics2D.setColor(getBackground());
+        graphics2D.fillRect(0, 0, getWidth(), getHeight());
+        final double progress = fadeNanos > 0 ? Math.min(1, (double) (startNanos - fadeStartNanos) / fadeNanos) : 1;
+        if (outgoing != null) {
+            outgoing.paintFrame(graphics2D, getWidth(), getHeight());
+        }
+        if (incoming != null) {
+            final double alpha = fadingToBlack ? 1 - progress : progress;
+            final Composite composite = graphics2D.getComposite();
+            graphics2D.setComposite(ALPHAS[(int) Math.round(alpha * ALPHA_STEPS)]);
+            incoming.paintFrame(graphics2D, getWidth(), getHeight());
+            graphics2D.setComposite(composite);
+        }
+        final float currentOpacity = opacity;
+        if (currentOpacity < 1) {
+            final Composite composite = graphics2D.getComposite();
+            graphics2D.setComposite(ALPHAS[Math.round((1 - currentOpacity) * ALPHA_STEPS)]);
+            graphics2D.setColor(getBackground());
+            graphics2D.fillRect(0, 0, getWidth(), getHeight());
+            graphics2D.setComposite(composite);
+        }
+        if (onFaded != null && progress >= 1) {
+            finishTransition(true);
+        }
+        renderStatistics.composited(System.nanoTime() - startNanos, frameIntervalNanos);
+    }
+
+    private void startTransition(final long fadeMillis, final Runnable onFaded) {
+        this.onFaded = onFaded;
+        fadeStartNanos = System.nanoTime();
+        fadeNanos = TimeUnit.MILLISECONDS.toNanos(fadeMillis);
+        fadeTimer.start();
+    }
+
+    private void finishTransition(final boolean completed) {
+        final Runnable callback = onFaded;
+        final boolean cancelled = fadingToBlack && !completed;
+        if (fadingToBlack && completed) {
+            incoming = null;
+        }
+        onFaded = null;
+        outgoing = null;
+        fadingToBlack = false;
+        fadeNanos = 0;
+        fadeTimer.stop();
+        if (callback != null && !cancelled) {
+            callback.run();
+        }
+    }
+
+    private static CallbackPlayerView layer(final PlayerView view) {
+        return (CallbackPlayerView) view;
+    }
+}
@@ -0,0 +1,309 @@
+package io.github.leovr.vlcmidi.playback;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PageCacheWarmer {
+
+    private static final int O_RDONLY = 0;
+    private static final int POSIX_FADV_WILLNEED = 3;
+    private static final int POSIX_FADV_DONTNEED = 4;
+    private static final int PROT_READ = 1;
+    private static final int MAP_SHARED = 1;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private interface CLibrary extends Library {
+
+        int open(final String path, final int flags);
+
+        int close(final int fd);
+
+        int posix_fadvise(final int fd, final long offset, final long length, final int advice);
+
+        Pointer mmap(final Pointer address, final long length, final int protection, final int flags, final int fd,
+                     final long offset);
+
+        int munmap(final Pointer address, final long length);
+
+        int mincore(final Pointer address, final long length, final byte[] residency);
+
+        int getpagesize();
+
+    }
+
+    private static class Clip {
+        private final File file;
+        private final long size;
+        private long warmedBytes;
+        private long lastUsed;
+
+        private Clip(final File file) {
+            this.file = file;
+            size = file.length();
+        }
+    }
+
+    private final long budgetBytes;
+    private final long headBytes;
+    private final CLibrary c;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "page-cache-warmer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicLong warmedBytes = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private volatile List<Clip> clips = Collections.emptyList();
+    private volatile long residentBytes = -1;
+    private Map<File, Clip> clipsByFile = Collections.emptyMap();
+    private long useCounter;
+    private ByteBuffer readBuffer;
+
+    public PageCacheWarmer(final long budgetBytes, final long headBytes) {
+        this.budgetBytes = budgetBytes;
+        this.headBytes = headBytes;
+        c = Platform.isLinux() ? loadCLibrary() : null;
+        log.debug("Page cache warmer uses {}", c != null ? "posix_fadvise" : "sequential reads");
+    }
+
+    public void warm(final List<File> files, final List<File> priorityFiles) {
+        executor.execute(() -> {
+            final long startNanos = System.nanoTime();
+            final Map<File, Clip> loadedClips = new HashMap<>();
+            for (final File file : files) {
+                loadedClips.computeIfAbsent(file.getAbsoluteFile(), Clip::new);
+            }
+            clipsByFile = loadedClips;
+            clips = new ArrayList<>(loadedClips.values());
+            useCounter = 0;
+            warmedBytes.set(0);
+
+            final Set<Clip> ordered = new LinkedHashSet<>();
+            for (final File file : priorityFiles) {
+                final Clip clip = loadedClips.get(file.getAbsoluteFile());
+                if (clip != null) {
+                    ordered.add(clip);
+                }
+            }
+            for (final File file : files) {
+                ordered.add(loadedClips.get(file.getAbsoluteFile()));
+            }
+
+            for (final Clip clip : ordered) {
+                final long head = Math.min(headBytes, clip.size);
+                if (warmedBytes.get() - clip.warmedBytes + head > budgetBytes) {
+                    continue;
+                }
+                warm(clip, head);
+            }
+            for (final Clip clip : ordered) {
+                if (warmedBytes.get() - clip.warmedBytes + clip.size > budgetBytes) {
+                    continue;
+                }
+                warm(clip, clip.size);
+            }
+            log.info("Warmed {} MB of {} clips in {} ms", warmedBytes.get() >> 20, clips.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            measureResidency();
+            log.info(format());
+        });
+    }
+
+    public void touch(final File file) {
+        executor.execute(() -> {
+            final Clip used = clipsByFile.get(file.getAbsoluteFile());
+            if (used == null) {
+                return;
+            }
+            used.lastUsed = ++useCounter;
+            if (used.warmedBytes >= used.size) {
+                return;
+            }
+            makeRoom(used, used.size - used.warmedBytes);
+            if (warmedBytes.get() - used.warmedBytes + used.size <= budgetBytes) {
+                warm(used, used.size);
+            }
+        });
+    }
+
+    public long getWarmedBytes() {
+        return warmedBytes.get();
+    }
+
+    public long getEvictedBytes() {
+        return evictedBytes.get();
+    }
+
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public String report() {
+        if (!executor.isShutdown()) {
+            executor.execute(this::measureResidency);
+        }
+        return format();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String format() {
+        final long total = clips.stream().mapToLong(clip -> clip.size).sum();
+        final long resident = residentBytes;
+        if (resident < 0) {
+            return String.format("Page cache: %d of %d MB warmed, %d MB evicted", warmedBytes.get() >> 20,
+                    total >> 20, evictedBytes.get() >> 20);
+        }
+        return String.format("Page cache: %d of %d MB resident, %d MB warmed, %d MB evicted", resident >> 20,
+                total >> 20, warmedBytes.get() >> 20, evictedBytes.get() >> 20);
+    }
+
+    private void measureResidency() {
+        if (c == null) {
+            return;
+        }
+        long resident = 0;
+        for (final Clip clip : clips) {
+            resident += residentBytes(clip);
+        }
+        residentBytes = resident;
+    }
+
+    private void makeRoom(final Clip needed, final long bytes) {
+        final List<Clip> candidates = new ArrayList<>(clips);
+        candidates.sort((first, second) -> Long.compare(first.lastUsed, second.lastUsed));
+        for (final Clip candidate : candidates) {
+            if (warmedBytes.get() + bytes <= budgetBytes) {
+                return;
+            }
+            if (candidate == needed || candidate.warmedBytes <= headBytes) {
+                continue;
+            }
+            final long evicted = candidate.warmedBytes - Math.min(headBytes, candidate.size);
+            if (c != null && advise(candidate.file, headBytes, 0, POSIX_FADV_DONTNEED)) {
+                evictedBytes.addAndGet(evicted);
+            }
+            candidate.warmedBytes -= evicted;
+            warmedBytes.addAndGet(-evicted);
+        }
+    }
+
+    private void warm(final Clip clip, final long bytes) {
+        if (bytes <= clip.warmedBytes) {
+            return;
+        }
+        final boolean warmed;
+        if (c != null) {
+            warmed = advise(clip.file, clip.warmedBytes, bytes - clip.warmedBytes, POSIX_FADV_WILLNEED);
+        } else {
+            warmed = read(clip.file, clip.warmedBytes, bytes);
+        }
+        if (warmed) {
+            warmedBytes.addAndGet(bytes - clip.warmedBytes);
+            clip.warmedBytes = bytes;
+        }
+    }
+
+    private boolean advise(final File file, final long offset, final long length, final int advice) {
+        final int fd = c.open(file.getAbsolutePath(), O_RDONLY);
+        if (fd < 0) {
+            log.debug("Could not open {} for posix_fadvise", file);
+            return false;
+        }
+        try {
+            return c.posix_fadvise(fd, offset, length, advice) == 0;
+        } finally {
+            c.close(fd);
+        }
+    }
+
+    private boolean read(final File file, final long offset, final long end) {
+        if (readBuffer == null) {
+            readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = offset;
+            while (position < end) {
+                readBuffer.clear();
+                readBuffer.limit((int) Math.min(readBuffer.capacity(), end - position));
+                final int read = channel.read(readBuffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            return true;
+        } catch (final IOException e) {
+            log.debug("Could not read {} into the page cache", file, e);
+            return false;
+        }
+    }
+
+    private long residentBytes(final Clip clip) {
+        if (c == null) {
+            return -1;
+        }
+        if (clip.size == 0) {
+            return 0;
+        }
+        final int fd = c.open(clip.file.getAbsolutePath(), O_RDONLY);
+        if (fd < 0) {
+            return 0;
+        }
+        try {
+            final Pointer mapping = c.mmap(null, clip.size, PROT_READ, MAP_SHARED, fd, 0);
+            if (Pointer.nativeValue(mapping) == -1) {
+                return 0;
+            }
+            try {
+                final int pageSize = c.getpagesize();
+                final byte[] residency = new byte[(int) ((clip.size + pageSize - 1) / pageSize)];
+                if (c.mincore(mapping, clip.size, residency) != 0) {
+                    return 0;
+                }
+                long residentPages = 0;
+                for (final byte page : residency) {
+                    residentPages += page & 1;
+                }
+                return Math.min(clip.size, residentPages * pageSize);
+            } finally {
+                c.munmap(mapping, clip.size);
+            }
+        } finally {
+            c.close(fd);
+        }
+    }
+
+    private static CLibrary loadCLibrary() {
+        try {
+            return Native.load("c", CLibrary.class);
+        } catch (final UnsatisfiedLinkError e) {
+            log.warn("Could not load libc, falling back to sequential reads", e);
+            return null;
+        }
+    }
+}
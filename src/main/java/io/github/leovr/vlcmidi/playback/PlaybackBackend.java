@@ -0,0 +1,42 @@
+package io.github.leovr.vlcmidi.playback;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public interface PlaybackBackend {
+
+    void init(final Executor controlExecutor);
+
+    void load(final List<String> mrls, final long[] crossfadeMillis, final List<ClipCue> cues);
+
+    void prepare(final int clip);
+
+    void preload(final int clip);
+
+    void play(final int clip, final long receivedNanos, final long dispatchedNanos);
+
+    void stop();
+
+    void fadeToBlack(final long fadeMillis);
+
+    boolean isPlaying();
+
+    long playbackTime();
+
+    String playerState();
+
+    void setRate(final float rate);
+
+    void seek(final long timeMillis);
+
+    void setPosition(final float position);
+
+    void setVolume(final int volume);
+
+    void setBrightness(final float brightness);
+
+    void showBlack();
+
+    void release();
+
+}
@@ -0,0 +1,444 @@
+package io.github.leovr.vlcmidi.playback;
+
+import io.github.leovr.vlcmidi.metrics.CueStatistics;
+import io.github.leovr.vlcmidi.metrics.LatencyHistogram;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+import uk.co.caprica.vlcj.player.base.State;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.CardLayout;
+import java.awt.Container;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class PlayerPool {
+
+    private static final String CARD_PREFIX = "videoPlayer";
+    private static final String COMPOSITOR_CARD = "compositor";
+    private static final String START_PAUSED = ":start-paused";
+    private static final String START_PLAYING = ":no-start-paused";
+    private static final int NO_CLIP = -1;
+    private static final int FLIP_TIMEOUT_MILLIS = 1000;
+
+    private static class Slot {
+        private final PlayerView view;
+        private final EmbeddedMediaPlayer mediaPlayer;
+        private final String card;
+        private int clip = NO_CLIP;
+        private boolean primed;
+        private boolean fading;
+        private long lastUsed;
+        private long generation;
+        private volatile long cutStartedNanos;
+        private int cutClip = NO_CLIP;
+        private long receivedNanos;
+        private long dispatchedNanos;
+        private long cueMillis;
+        private volatile long playNanos;
+        private final AtomicReference<Runnable> pendingFlip = new AtomicReference<>();
+
+        Slot(final PlayerView view, final String card) {
+            this.view = view;
+            this.mediaPlayer = view.getMediaPlayer();
+            this.card = card;
+        }
+    }
+
+    private final Container container;
+    private final CardLayout cardLayout;
+    private final Executor controlExecutor;
+    private final PreparedMediaCache preparedMediaCache;
+    private final TriggerLatencyRecorder latencyRecorder;
+    private final CueStatistics cueStatistics;
+    private final boolean sound;
+    private final boolean flipOnFirstFrame;
+    private final FrameCompositor compositor;
+    private final Slot[] slots;
+    @Getter
+    private final LatencyHistogram switchLatency = new LatencyHistogram();
+    private final AtomicLong primedCuts = new AtomicLong();
+    private final AtomicLong coldCuts = new AtomicLong();
+    private final Timer flipTimeout;
+    private volatile Slot front;
+    private volatile State state = State.STOPPED;
+    private long useCounter;
+    private long[] cueStartMillis = new long[0];
+    private int volume = -1;
+    private float brightness = -1;
+
+    public PlayerPool(final Container container, final CardLayout cardLayout, final Executor controlExecutor,
+                      final List<PlayerView> views,
+                      final PreparedMediaCache preparedMediaCache, final TriggerLatencyRecorder latencyRecorder,
+                      final CueStatistics cueStatistics, final boolean sound, final boolean flipOnFirstFrame,
+                      final FrameCompositor compositor) {
+        this.container = container;
+        this.cardLayout = cardLayout;
+        this.controlExecutor = controlExecutor;
+        this.preparedMediaCache = preparedMediaCache;
+        this.latencyRecorder = latencyRecorder;
+        this.cueStatistics = cueStatistics;
+        this.sound = sound;
+        this.flipOnFirstFrame = flipOnFirstFrame;
+        this.compositor = compositor;
+        flipTimeout = new Timer(FLIP_TIMEOUT_MILLIS, event -> {
+            final Slot currentFront = front;
+            if (currentFront != null && currentFront.pendingFlip.get() != null) {
+                log.debug("Clip {} showed no frame within {} ms", currentFront.cutClip, FLIP_TIMEOUT_MILLIS);
+                flipPending(currentFront);
+            }
+        });
+        flipTimeout.setRepeats(false);
+        if (compositor != null) {
+            container.add(compositor, COMPOSITOR_CARD);
+        }
+        slots = new Slot[views.size()];
+        for (int i = 0; i < slots.length; i++) {
+            final Slot slot;
+            if (compositor != null) {
+                slot = new Slot(views.get(i), COMPOSITOR_CARD);
+                compositor.attach(slot.view);
+            } else {
+                slot = new Slot(views.get(i), CARD_PREFIX + i);
+                container.add(slot.view.getComponent(), slot.card);
+            }
+            slots[i] = slot;
+        }
+    }
+
+    public void init() {
+        for (final Slot slot : slots) {
+            slot.mediaPlayer.controls().setRepeat(false);
+            if (!sound) {
+                slot.mediaPlayer.audio().mute();
+            }
+            slot.mediaPlayer.events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+                @Override
+                public void opening(final MediaPlayer mediaPlayer) {
+                    publishState(slot, State.OPENING);
+                }
+
+                @Override
+                public void paused(final MediaPlayer mediaPlayer) {
+                    publishState(slot, State.PAUSED);
+                }
+
+                @Override
+                public void finished(final MediaPlayer mediaPlayer) {
+                    publishState(slot, State.ENDED);
+                }
+
+                @Override
+                public void error(final MediaPlayer mediaPlayer) {
+                    publishState(slot, State.ERROR);
+                    flipPending(slot);
+                }
+
+                @Override
+                public void playing(final MediaPlayer mediaPlayer) {
+                    publishState(slot, State.PLAYING);
+                    final long cutStartedNanos = slot.cutStartedNanos;
+                    if (cutStartedNanos != 0) {
+                        slot.cutStartedNanos = 0;
+                        switchLatency.record(System.nanoTime() - cutStartedNanos);
+                    }
+                }
+
+                @Override
+                public void timeChanged(final MediaPlayer mediaPlayer, final long newTime) {
+                    flipPending(slot);
+                    final long playNanos = slot.playNanos;
+                    if (playNanos != 0) {
+                        slot.playNanos = 0;
+                        final long nowNanos = System.nanoTime();
+                        latencyRecorder.record(slot.cutClip, slot.receivedNanos, slot.dispatchedNanos, playNanos,
+                                nowNanos);
+                        if (slot.cueMillis > 0) {
+                            cueStatistics.record(slot.cueMillis, newTime, nowNanos - playNanos);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    public void prime(final int clip) {
+        if (findPrimed(clip) != null) {
+            return;
+        }
+        final Slot slot = idleSlot();
+        if (slot == front || slot.fading) {
+            return;
+        }
+        playPaused(slot, clip);
+        assign(slot, clip, true);
+    }
+
+    public boolean primeIfIdle(final int clip) {
+        if (findPrimed(clip) != null) {
+            return true;
+        }
+        for (final Slot slot : slots) {
+            if (slot != front && !slot.primed && !slot.fading) {
+                playPaused(slot, clip);
+                assign(slot, clip, true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void cut(final int clip, final long crossfadeMillis, final long receivedNanos,
+                    final long dispatchedNanos) {
+        final long startedNanos = System.nanoTime();
+        final Slot previous = front;
+        Slot slot = findPrimed(clip);
+        final Runnable flip;
+        if (slot != null) {
+            primedCuts.incrementAndGet();
+            flip = stampCut(slot, clip, receivedNanos, dispatchedNanos, startedNanos, previous, crossfadeMillis);
+            front = slot;
+            slot.mediaPlayer.controls().play();
+        } else {
+            coldCuts.incrementAndGet();
+            slot = idleSlot();
+            final MediaRef mediaRef = preparedMediaCache.get(clip);
+            flip = stampCut(slot, clip, receivedNanos, dispatchedNanos, startedNanos, previous, crossfadeMillis);
+            front = slot;
+            slot.mediaPlayer.media().play(mediaRef, START_PLAYING);
+        }
+        state = State.OPENING;
+        if (!flipOnFirstFrame) {
+            SwingUtilities.invokeLater(flip);
+        }
+        if (!sound) {
+            slot.mediaPlayer.audio().mute();
+        } else if (volume >= 0) {
+            slot.mediaPlayer.audio().setVolume(volume);
+        }
+        if (brightness >= 0) {
+            adjustBrightness(slot);
+        }
+        assign(slot, clip, false);
+    }
+
+    public void stop() {
+        for (final Slot slot : slots) {
+            slot.mediaPlayer.controls().stop();
+            slot.clip = NO_CLIP;
+            slot.primed = false;
+            slot.fading = false;
+            slot.generation++;
+            slot.cutStartedNanos = 0;
+            slot.playNanos = 0;
+            slot.pendingFlip.set(null);
+        }
+        front = null;
+        state = State.STOPPED;
+    }
+
+    public void forget(final int clip) {
+        for (final Slot slot : slots) {
+            if (slot != front && !slot.fading && slot.clip == clip) {
+                slot.mediaPlayer.controls().stop();
+                slot.clip = NO_CLIP;
+                slot.primed = false;
+                slot.generation++;
+            }
+        }
+    }
+
+    public void setCueStarts(final long[] cueStartMillis) {
+        this.cueStartMillis = cueStartMillis;
+    }
+
+    public boolean isPlaying() {
+        return front != null;
+    }
+
+    public long time() {
+        final Slot currentFront = front;
+        return currentFront != null ? currentFront.mediaPlayer.status().time() : -1;
+    }
+
+    public String state() {
+        return state.name();
+    }
+
+    public void setRate(final float rate) {
+        final Slot currentFront = front;
+        if (currentFront != null) {
+            currentFront.mediaPlayer.controls().setRate(rate);
+        }
+    }
+
+    public void seek(final long timeMillis) {
+        final Slot currentFront = front;
+        if (currentFront != null) {
+            currentFront.mediaPlayer.controls().setTime(timeMillis);
+        }
+    }
+
+    public void setPosition(final float position) {
+        final Slot currentFront = front;
+        if (currentFront != null) {
+            currentFront.mediaPlayer.controls().setPosition(position);
+        }
+    }
+
+    public void setVolume(final int volume) {
+        this.volume = volume;
+        final Slot currentFront = front;
+        if (currentFront != null && sound) {
+            currentFront.mediaPlayer.audio().setVolume(volume);
+        }
+    }
+
+    public void setBrightness(final float brightness) {
+        this.brightness = brightness;
+        final Slot currentFront = front;
+        if (currentFront != null) {
+            adjustBrightness(currentFront);
+        }
+    }
+
+    public boolean isFront(final MediaPlayer mediaPlayer) {
+        final Slot currentFront = front;
+        return currentFront != null && currentFront.mediaPlayer == mediaPlayer;
+    }
+
+    public long getPrimedCuts() {
+        return primedCuts.get();
+    }
+
+    public long getColdCuts() {
+        return coldCuts.get();
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public void release() {
+        flipTimeout.stop();
+        for (final Slot slot : slots) {
+            slot.view.release();
+        }
+    }
+
+    private void publishState(final Slot slot, final State newState) {
+        controlExecutor.execute(() -> {
+            if (slot == front) {
+                state = newState;
+            }
+        });
+    }
+
+    private Runnable stampCut(final Slot slot, final int clip, final long receivedNanos, final long dispatchedNanos,
+                              final long startedNanos, final Slot previous, final long crossfadeMillis) {
+        slot.cutClip = clip;
+        slot.receivedNanos = receivedNanos;
+        slot.dispatchedNanos = dispatchedNanos;
+        slot.cueMillis = clip < cueStartMillis.length ? cueStartMillis[clip] : 0;
+        slot.cutStartedNanos = startedNanos;
+        slot.playNanos = System.nanoTime();
+        final String card = slot.card;
+        final Runnable hidePrevious;
+        if (previous == null || previous == slot) {
+            hidePrevious = () -> {
+            };
+        } else {
+            final long previousGeneration = previous.generation;
+            previous.fading = compositor != null && crossfadeMillis > 0;
+            hidePrevious = () -> controlExecutor.execute(() -> retire(previous, previousGeneration));
+        }
+        final PlayerView view = slot.view;
+        final Runnable flip = () -> {
+            cardLayout.show(container, card);
+            if (compositor != null) {
+                compositor.cut(view, crossfadeMillis, hidePrevious);
+            } else {
+                hidePrevious.run();
+            }
+        };
+        slot.pendingFlip.set(flipOnFirstFrame ? flip : null);
+        if (flipOnFirstFrame) {
+            flipTimeout.restart();
+        }
+        return flip;
+    }
+
+    private void flipPending(final Slot slot) {
+        final Runnable flip = slot.pendingFlip.getAndSet(null);
+        if (flip != null && slot == front) {
+            SwingUtilities.invokeLater(flip);
+        }
+    }
+
+    private void adjustBrightness(final Slot slot) {
+        slot.mediaPlayer.video().setAdjustVideo(true);
+        slot.mediaPlayer.video().setBrightness(brightness);
+    }
+
+    private void playPaused(final Slot slot, final int clip) {
+        // Media options stick to the native media, so the cached reference must never see :start-paused
+        final MediaRef primedMediaRef = preparedMediaCache.get(clip).duplicateMediaRef();
+        slot.mediaPlayer.media().play(primedMediaRef, START_PAUSED);
+        primedMediaRef.release();
+    }
+
+    private void assign(final Slot slot, final int clip, final boolean primed) {
+        slot.clip = clip;
+        slot.primed = primed;
+        slot.lastUsed = ++useCounter;
+        slot.generation++;
+    }
+
+    private void retire(final Slot slot, final long generation) {
+        slot.fading = false;
+        if (slot != front && slot.generation == generation) {
+            slot.mediaPlayer.controls().stop();
+            slot.clip = NO_CLIP;
+        }
+    }
+
+    private Slot findPrimed(final int clip) {
+        for (final Slot slot : slots) {
+            if (slot != front && slot.primed && slot.clip == clip) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private Slot idleSlot() {
+        Slot candidate = null;
+        Slot fading = null;
+        for (final Slot slot : slots) {
+            if (slot == front) {
+                continue;
+            }
+            if (slot.fading) {
+                fading = slot;
+                continue;
+            }
+            if (candidate == null || (candidate.primed && !slot.primed) ||
+                    (candidate.primed == slot.primed && slot.lastUsed < candidate.lastUsed)) {
+                candidate = slot;
+            }
+        }
+        if (candidate != null) {
+            return candidate;
+        }
+        return fading != null ? fading : front;
+    }
+}
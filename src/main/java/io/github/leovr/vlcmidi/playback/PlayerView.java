@@ -0,0 +1,15 @@
+package io.github.leovr.vlcmidi.playback;
+
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+import java.awt.Component;
+
+public interface PlayerView {
+
+    Component getComponent();
+
+    EmbeddedMediaPlayer getMediaPlayer();
+
+    void release();
+
+}
@@ -0,0 +1,314 @@
+package io.github.leovr.vlcmidi.playback;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormat;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.BufferFormatCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.RenderCallback;
+import uk.co.caprica.vlcj.player.embedded.videosurface.callback.format.RV32BufferFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PosterFrameCache {
+
+    private static final long FIRST_FRAME_TIMEOUT_MILLIS = 5000;
+    private static final String NO_AUDIO = ":no-audio";
+
+    static final class Poster {
+        private final int width;
+        private final int height;
+        private final BufferedImage image;
+        private final IntBuffer offHeapPixels;
+
+        private Poster(final int width, final int height, final IntBuffer source, final boolean offHeap) {
+            this.width = width;
+            this.height = height;
+            if (offHeap) {
+                offHeapPixels = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+                offHeapPixels.put(source);
+                image = null;
+            } else {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                source.get(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+                offHeapPixels = null;
+            }
+        }
+
+        boolean isOffHeap() {
+            return offHeapPixels != null;
+        }
+
+        BufferedImage toImage(final BufferedImage reusable) {
+            if (image != null) {
+                return image;
+            }
+            BufferedImage target = reusable;
+            if (target == null || target.getWidth() != width || target.getHeight() != height) {
+                target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            final IntBuffer source = offHeapPixels.duplicate();
+            source.rewind();
+            source.get(((DataBufferInt) target.getRaster().getDataBuffer()).getData());
+            return target;
+        }
+
+        private long bytes() {
+            return (long) width * height * 4;
+        }
+    }
+
+    private final MediaPlayerFactory mediaPlayerFactory;
+    private final File directory;
+    private final long budgetBytes;
+    private final boolean offHeap;
+    private final int maxWidth;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "poster-frames");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Map<Integer, Poster> posters = new HashMap<>();
+    private List<String> loadedFiles = new ArrayList<>();
+    private List<ClipCue> loadedCues = new ArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong extracted = new AtomicLong();
+    private final AtomicLong loadedFromDisk = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private long bytes;
+    private long generation;
+    private EmbeddedMediaPlayer extractor;
+    private volatile Poster extractedPoster;
+    private volatile CountDownLatch firstFrame;
+    private int extractWidth;
+    private int extractHeight;
+
+    public PosterFrameCache(final MediaPlayerFactory mediaPlayerFactory, final File directory,
+                            final long budgetBytes, final int maxWidth, final boolean offHeap) {
+        this.mediaPlayerFactory = mediaPlayerFactory;
+        this.directory = directory;
+        this.budgetBytes = budgetBytes;
+        this.maxWidth = maxWidth;
+        this.offHeap = offHeap;
+    }
+
+    public void load(final List<String> mrls, final List<ClipCue> cues) {
+        final List<String> files = new ArrayList<>(mrls);
+        final List<ClipCue> fileCues = new ArrayList<>(cues);
+        final long loadGeneration;
+        synchronized (this) {
+            loadGeneration = ++generation;
+            for (int clip = 0; clip < loadedFiles.size(); clip++) {
+                if (clip >= files.size() || !Objects.equals(loadedFiles.get(clip), files.get(clip)) ||
+                        !Objects.equals(loadedCues.get(clip), fileCues.get(clip))) {
+                    final Poster poster = posters.remove(clip);
+                    if (poster != null) {
+                        bytes -= poster.bytes();
+                    }
+                }
+            }
+            loadedFiles = files;
+            loadedCues = fileCues;
+            skipped.set(0);
+        }
+        executor.execute(() -> {
+            final long startNanos = System.nanoTime();
+            for (int clip = 0; clip < files.size(); clip++) {
+                synchronized (this) {
+                    if (generation != loadGeneration || bytes >= budgetBytes) {
+                        break;
+                    }
+                    if (files.get(clip) == null || posters.containsKey(clip)) {
+                        continue;
+                    }
+                }
+                final Poster poster = loadPoster(new File(files.get(clip)),
+                        clip < fileCues.size() ? fileCues.get(clip) : ClipCue.NONE);
+                if (poster != null) {
+                    put(loadGeneration, clip, poster);
+                }
+            }
+            log.info("Prepared poster frames in {} ms: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    report());
+        });
+    }
+
+    public synchronized Poster get(final int clip) {
+        final Poster poster = posters.get(clip);
+        if (poster == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return poster;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized String report() {
+        return String.format("Poster frames: %d in memory, %d of %d MB%s, %d hits, %d misses, %d extracted, " +
+                        "%d from disk, %d over budget", posters.size(), bytes >> 20, budgetBytes >> 20,
+                offHeap ? " off-heap" : "", hits.get(), misses.get(), extracted.get(), loadedFromDisk.get(),
+                skipped.get());
+    }
+
+    public void release() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(FIRST_FRAME_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (extractor != null) {
+            extractor.controls().stop();
+            extractor.release();
+            extractor = null;
+        }
+        synchronized (this) {
+            posters.clear();
+            bytes = 0;
+        }
+    }
+
+    private synchronized void put(final long loadGeneration, final int clip, final Poster poster) {
+        if (generation != loadGeneration) {
+            return;
+        }
+        if (bytes + poster.bytes() > budgetBytes) {
+            skipped.incrementAndGet();
+            return;
+        }
+        posters.put(clip, poster);
+        bytes += poster.bytes();
+    }
+
+    private Poster loadPoster(final File file, final ClipCue cue) {
+        if (!file.isFile()) {
+            return null;
+        }
+        final File sidecar = sidecar(file, cue);
+        if (sidecar.isFile()) {
+            try {
+                final BufferedImage image = ImageIO.read(sidecar);
+                if (image != null) {
+                    loadedFromDisk.incrementAndGet();
+                    final int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0,
+                            image.getWidth());
+                    return new Poster(image.getWidth(), image.getHeight(), IntBuffer.wrap(pixels), offHeap);
+                }
+            } catch (final IOException e) {
+                log.debug("Could not read poster frame {}", sidecar, e);
+            }
+        }
+        final Poster poster = extract(file, cue);
+        if (poster != null) {
+            extracted.incrementAndGet();
+            writeSidecar(poster, sidecar);
+        }
+        return poster;
+    }
+
+    private Poster extract(final File file, final ClipCue cue) {
+        if (extractor == null) {
+            extractor = mediaPlayerFactory.mediaPlayers().newEmbeddedMediaPlayer();
+            extractor.videoSurface().set(mediaPlayerFactory.videoSurfaces()
+                    .newVideoSurface(new ExtractorBufferFormatCallback(), new ExtractorRenderCallback(), true));
+            extractor.audio().mute();
+        }
+        extractedPoster = null;
+        firstFrame = new CountDownLatch(1);
+        try {
+            final String[] startOptions = cue.startOptions();
+            final String[] options = Arrays.copyOf(startOptions, startOptions.length + 1);
+            options[startOptions.length] = NO_AUDIO;
+            if (!extractor.media().play(file.getAbsolutePath(), options)) {
+                return null;
+            }
+            if (!firstFrame.await(FIRST_FRAME_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.debug("No poster frame for {}", file);
+            }
+            return extractedPoster;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            extractor.controls().stop();
+        }
+    }
+
+    private void writeSidecar(final Poster poster, final File sidecar) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        try {
+            ImageIO.write(poster.toImage(null), "jpg", sidecar);
+        } catch (final IOException e) {
+            log.debug("Could not write poster frame {}", sidecar, e);
+        }
+    }
+
+    private File sidecar(final File file, final ClipCue cue) {
+        String key = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified() + '|' + maxWidth;
+        if (cue.getSeekMillis() > 0) {
+            key += '|' + cue.getSeekMillis();
+        }
+        return new File(directory, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".jpg");
+    }
+
+    private class ExtractorBufferFormatCallback implements BufferFormatCallback {
+
+        @Override
+        public BufferFormat getBufferFormat(final int sourceWidth, final int sourceHeight) {
+            extractWidth = Math.min(sourceWidth, maxWidth);
+            extractHeight = Math.max(1, (int) ((long) sourceHeight * extractWidth / Math.max(1, sourceWidth)));
+            return new RV32BufferFormat(extractWidth, extractHeight);
+        }
+
+        @Override
+        public void allocatedBuffers(final ByteBuffer[] buffers) {
+        }
+    }
+
+    private class ExtractorRenderCallback implements RenderCallback {
+
+        @Override
+        public void display(final MediaPlayer mediaPlayer, final ByteBuffer[] nativeBuffers,
+                            final BufferFormat bufferFormat) {
+            final CountDownLatch latch = firstFrame;
+            if (latch == null || latch.getCount() == 0) {
+                return;
+            }
+            final IntBuffer source = nativeBuffers[0].duplicate().order(ByteOrder.nativeOrder()).asIntBuffer();
+            source.limit(Math.min(source.limit(), extractWidth * extractHeight));
+            extractedPoster = new Poster(extractWidth, extractHeight, source, offHeap);
+            latch.countDown();
+        }
+    }
+}
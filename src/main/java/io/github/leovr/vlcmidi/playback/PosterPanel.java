@@ -0,0 +1,44 @@
+package io.github.leovr.vlcmidi.playback;
+
+import javax.swing.JPanel;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+public class PosterPanel extends JPanel {
+
+    private BufferedImage poster;
+    private BufferedImage offHeapCopy;
+
+    public PosterPanel() {
+        setBackground(Color.BLACK);
+        setDoubleBuffered(false);
+    }
+
+    void show(final PosterFrameCache.Poster poster) {
+        if (poster.isOffHeap()) {
+            offHeapCopy = poster.toImage(offHeapCopy);
+            this.poster = offHeapCopy;
+        } else {
+            this.poster = poster.toImage(null);
+        }
+        paintImmediately(0, 0, getWidth(), getHeight());
+    }
+
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        super.paintComponent(graphics);
+        if (poster == null) {
+            return;
+        }
+        final double scale = Math.min((double) getWidth() / poster.getWidth(),
+                (double) getHeight() / poster.getHeight());
+        final int width = (int) (poster.getWidth() * scale);
+        final int height = (int) (poster.getHeight() * scale);
+        ((Graphics2D) graphics).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(poster, (getWidth() - width) / 2, (getHeight() - height) / 2, width, height, null);
+    }
+}
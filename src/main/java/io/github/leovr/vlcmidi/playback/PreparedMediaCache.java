@@ -0,0 +1,160 @@
+package io.github.leovr.vlcmidi.playback;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.Media;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.media.ParseFlag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PreparedMediaCache {
+
+    private static final class PreparedMedia {
+
+        private final Media media;
+        private final MediaRef mediaRef;
+
+        private PreparedMedia(final Media media) {
+            this.media = media;
+            mediaRef = media.newMediaRef();
+        }
+
+        private void release() {
+            mediaRef.release();
+            media.release();
+        }
+
+    }
+
+    private final MediaPlayerFactory mediaPlayerFactory;
+    private final int maximumSize;
+    private final List<String> mrls = new ArrayList<>();
+    private final List<ClipCue> cues = new ArrayList<>();
+    private final Map<Integer, PreparedMedia> pinned = new HashMap<>();
+    private final LinkedHashMap<Integer, PreparedMedia> recentlyUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PreparedMediaCache(final MediaPlayerFactory mediaPlayerFactory, final int maximumSize) {
+        this.mediaPlayerFactory = mediaPlayerFactory;
+        this.maximumSize = Math.max(1, maximumSize);
+    }
+
+    public synchronized List<Integer> setMrls(final List<String> mrls, final List<ClipCue> cues) {
+        final List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < this.mrls.size(); i++) {
+            if (i >= mrls.size() || !Objects.equals(this.mrls.get(i), mrls.get(i)) ||
+                    !Objects.equals(this.cues.get(i), cues.get(i))) {
+                release(i);
+                changed.add(i);
+            }
+        }
+        this.mrls.clear();
+        this.mrls.addAll(mrls);
+        this.cues.clear();
+        this.cues.addAll(cues);
+        return changed;
+    }
+
+    public synchronized boolean isLoaded(final int index) {
+        return index >= 0 && index < mrls.size() && mrls.get(index) != null;
+    }
+
+    public synchronized MediaRef get(final int index) {
+        PreparedMedia preparedMedia = pinned.get(index);
+        if (preparedMedia == null) {
+            preparedMedia = recentlyUsed.get(index);
+        }
+        if (preparedMedia != null) {
+            hits.incrementAndGet();
+            return preparedMedia.mediaRef;
+        }
+        misses.incrementAndGet();
+        preparedMedia = prepare(index);
+        recentlyUsed.put(index, preparedMedia);
+        evict();
+        return preparedMedia.mediaRef;
+    }
+
+    public synchronized void pin(final int index) {
+        if (!isLoaded(index)) {
+            log.warn("Cannot pin unknown clip {}", index);
+            return;
+        }
+        if (pinned.containsKey(index)) {
+            return;
+        }
+        final PreparedMedia preparedMedia = recentlyUsed.remove(index);
+        pinned.put(index, preparedMedia != null ? preparedMedia : prepare(index));
+    }
+
+    public synchronized void preload(final int index) {
+        if (pinned.containsKey(index) || recentlyUsed.containsKey(index)) {
+            return;
+        }
+        recentlyUsed.put(index, prepare(index));
+        evict();
+    }
+
+    public synchronized void clear() {
+        pinned.values().forEach(PreparedMedia::release);
+        pinned.clear();
+        recentlyUsed.values().forEach(PreparedMedia::release);
+        recentlyUsed.clear();
+        mrls.clear();
+        cues.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return pinned.size() + recentlyUsed.size();
+    }
+
+    private PreparedMedia prepare(final int index) {
+        final String[] options = index < cues.size() ? cues.get(index).mediaOptions() : new String[0];
+        final Media media = mediaPlayerFactory.media().newMedia(mrls.get(index), options);
+        media.parsing().parse(ParseFlag.PARSE_LOCAL);
+        return new PreparedMedia(media);
+    }
+
+    private void release(final int index) {
+        final PreparedMedia pinnedMedia = pinned.remove(index);
+        if (pinnedMedia != null) {
+            pinnedMedia.release();
+        }
+        final PreparedMedia recentMedia = recentlyUsed.remove(index);
+        if (recentMedia != null) {
+            recentMedia.release();
+        }
+    }
+
+    private void evict() {
+        final Iterator<PreparedMedia> iterator = recentlyUsed.values().iterator();
+        while (recentlyUsed.size() > maximumSize && iterator.hasNext()) {
+            iterator.next().release();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.leovr.vlcmidi.playback;
+
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+public class SimulatedPlaybackBackend implements PlaybackBackend {
+
+    private static final int NO_CLIP = -1;
+
+    private final long callDelayNanos;
+    private final long openDelayNanos;
+    private final long decodeDelayNanos;
+    private final TriggerLatencyRecorder latencyRecorder;
+    private final ScheduledExecutorService videoOutput = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "simulated-video-output");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong prepared = new AtomicLong();
+    private final AtomicLong played = new AtomicLong();
+    private final AtomicLong firstFrames = new AtomicLong();
+    private int clipCount;
+    private int primedClip = NO_CLIP;
+    private long primedReadyNanos;
+    private volatile long generation;
+    private boolean playing;
+    private long positionNanos;
+    private long positionUpdatedNanos;
+    private float rate = 1;
+
+    public SimulatedPlaybackBackend(final long callDelayNanos, final long openDelayNanos,
+                                    final long decodeDelayNanos, final TriggerLatencyRecorder latencyRecorder) {
+        this.callDelayNanos = callDelayNanos;
+        this.openDelayNanos = openDelayNanos;
+        this.decodeDelayNanos = decodeDelayNanos;
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    @Override
+    public void init(final Executor controlExecutor) {
+    }
+
+    @Override
+    public void load(final List<String> mrls, final long[] crossfadeMillis, final List<ClipCue> cues) {
+        clipCount = mrls.size();
+    }
+
+    @Override
+    public void prepare(final int clip) {
+        checkClip(clip);
+        simulateCall();
+        primedClip = clip;
+        primedReadyNanos = System.nanoTime() + openDelayNanos + decodeDelayNanos;
+        prepared.incrementAndGet();
+    }
+
+    @Override
+    public void preload(final int clip) {
+        if (primedClip == NO_CLIP) {
+            prepare(clip);
+        }
+    }
+
+    @Override
+    public void play(final int clip, final long receivedNanos, final long dispatchedNanos) {
+        checkClip(clip);
+        final long playNanos = System.nanoTime();
+        simulateCall();
+        final long firstFrameDelayNanos;
+        if (clip == primedClip) {
+            firstFrameDelayNanos = Math.max(0, primedReadyNanos - playNanos);
+        } else {
+            firstFrameDelayNanos = openDelayNanos + decodeDelayNanos;
+        }
+        primedClip = NO_CLIP;
+        playing = true;
+        positionNanos = -firstFrameDelayNanos;
+        positionUpdatedNanos = playNanos;
+        rate = 1;
+        played.incrementAndGet();
+        final long playGeneration = ++generation;
+        videoOutput.schedule(() -> {
+            if (generation == playGeneration) {
+                firstFrames.incrementAndGet();
+                latencyRecorder.record(clip, receivedNanos, dispatchedNanos, playNanos, System.nanoTime());
+            }
+        }, firstFrameDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        simulateCall();
+        primedClip = NO_CLIP;
+        playing = false;
+        generation++;
+    }
+
+    @Override
+    public void fadeToBlack(final long fadeMillis) {
+        stop();
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    @Override
+    public String playerState() {
+        return playing ? "PLAYING" : "STOPPED";
+    }
+
+    @Override
+    public long playbackTime() {
+        if (!playing) {
+            return -1;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(currentPositionNanos()));
+    }
+
+    @Override
+    public void setRate(final float rate) {
+        simulateCall();
+        positionNanos = currentPositionNanos();
+        positionUpdatedNanos = System.nanoTime();
+        this.rate = rate;
+    }
+
+    @Override
+    public void seek(final long timeMillis) {
+        simulateCall();
+        positionNanos = TimeUnit.MILLISECONDS.toNanos(timeMillis);
+        positionUpdatedNanos = System.nanoTime();
+    }
+
+    @Override
+    public void setPosition(final float position) {
+        simulateCall();
+    }
+
+    @Override
+    public void setVolume(final int volume) {
+        simulateCall();
+    }
+
+    @Override
+    public void setBrightness(final float brightness) {
+        simulateCall();
+    }
+
+    @Override
+    public void showBlack() {
+    }
+
+    @Override
+    public void release() {
+        log.info("Simulated playback: {} prepared, {} played, {} first frames", prepared.get(), played.get(),
+                firstFrames.get());
+        videoOutput.shutdownNow();
+    }
+
+    public long getPlayed() {
+        return played.get();
+    }
+
+    public long getFirstFrames() {
+        return firstFrames.get();
+    }
+
+    private long currentPositionNanos() {
+        return positionNanos + (long) ((System.nanoTime() - positionUpdatedNanos) * (double) rate);
+    }
+
+    private void checkClip(final int clip) {
+        if (clip < 0 || clip >= clipCount) {
+            throw new IllegalArgumentException("Unknown clip " + clip);
+        }
+    }
+
+    private void simulateCall() {
+        if (callDelayNanos > 0) {
+            LockSupport.parkNanos(callDelayNanos);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.leovr.vlcmidi.playback;
+
+import io.github.leovr.vlcmidi.Options;
+import io.github.leovr.vlcmidi.RenderMode;
+import io.github.leovr.vlcmidi.metrics.CueStatistics;
+import io.github.leovr.vlcmidi.metrics.RenderStatistics;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+import uk.co.caprica.vlcj.player.component.EmbeddedMediaPlayerComponent;
+import uk.co.caprica.vlcj.player.component.MediaPlayerSpecs;
+import uk.co.caprica.vlcj.player.embedded.EmbeddedMediaPlayer;
+
+import javax.swing.SwingUtilities;
+import java.awt.CardLayout;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@Slf4j
+public class VlcjPlaybackBackend implements PlaybackBackend {
+
+    private static final String POSTER_CARD = "posterPanel";
+    private static final int MIN_PLAYER_POOL_SIZE = 2;
+
+    private final Options options;
+    private final Container container;
+    private final CardLayout cardLayout;
+    private final String blackCard;
+    private final TriggerLatencyRecorder latencyRecorder;
+    private final KeyListener keyListener;
+    private final MouseListener mouseListener;
+    private final MediaPlayerFactory mediaPlayerFactory;
+    private final PreparedMediaCache preparedMediaCache;
+    private final PosterFrameCache posterFrameCache;
+    private final PosterPanel posterPanel;
+    @Getter
+    private final RenderStatistics renderStatistics;
+    private final FrameCompositor compositor;
+    private final CueStatistics cueStatistics = new CueStatistics();
+    private Executor controlExecutor;
+    private PlayerPool playerPool;
+    private long[] crossfadeMillis = new long[0];
+    private long cutGeneration;
+
+    public VlcjPlaybackBackend(final Options options, final Container container, final CardLayout cardLayout,
+                               final String blackCard, final TriggerLatencyRecorder latencyRecorder,
+                               final KeyListener keyListener, final MouseListener mouseListener) {
+        this.options = options;
+        this.container = container;
+        this.cardLayout = cardLayout;
+        this.blackCard = blackCard;
+        this.latencyRecorder = latencyRecorder;
+        this.keyListener = keyListener;
+        this.mouseListener = mouseListener;
+
+        final String[] args;
+        if (options.getCachingMilliseconds() == null) {
+            args = new String[]{"--video-title=vlcj video output", "--no-snapshot-preview", "--quiet", "--intf=dummy",
+                    "--file-caching=0", "--disc-caching=0"};
+        } else {
+            args = new String[]{"--video-title=vlcj video output", "--no-snapshot-preview", "--quiet", "--intf=dummy",
+                    "--file-caching=" + options.getCachingMilliseconds(),
+                    "--disc-caching=" + options.getCachingMilliseconds()};
+        }
+
+        mediaPlayerFactory = new MediaPlayerFactory(args);
+        preparedMediaCache = new PreparedMediaCache(mediaPlayerFactory, options.getMediaCacheSize());
+        if (options.getRenderMode() == RenderMode.CALLBACK) {
+            renderStatistics = new RenderStatistics();
+            compositor = new FrameCompositor(renderStatistics);
+            compositor.addKeyListener(keyListener);
+            compositor.addMouseListener(mouseListener);
+        } else {
+            renderStatistics = null;
+            compositor = null;
+            if (options.getCrossfadeMilliseconds() > 0 || options.getFadeToBlackMilliseconds() > 0) {
+                log.warn("Fades need --render-mode CALLBACK, cutting hard instead");
+            }
+        }
+        if (options.getPosterCacheMegabytes() > 0) {
+            posterFrameCache = new PosterFrameCache(mediaPlayerFactory, options.getPosterDirectory(),
+                    options.getPosterCacheMegabytes() << 20, options.getPosterWidth(), options.isPosterOffHeap());
+            posterPanel = new PosterPanel();
+            posterPanel.addKeyListener(keyListener);
+            posterPanel.addMouseListener(mouseListener);
+            container.add(posterPanel, POSTER_CARD);
+        } else {
+            posterFrameCache = null;
+            posterPanel = null;
+        }
+    }
+
+    @Override
+    public void init(final Executor controlExecutor) {
+        this.controlExecutor = controlExecutor;
+        final List<PlayerView> views = new ArrayList<>();
+        if (options.getPlayerPoolSize() < MIN_PLAYER_POOL_SIZE) {
+            log.warn("A player pool of {} cannot prime behind the playing clip, using {}",
+                    options.getPlayerPoolSize(), MIN_PLAYER_POOL_SIZE);
+        }
+        for (int i = 0; i < Math.max(MIN_PLAYER_POOL_SIZE, options.getPlayerPoolSize()); i++) {
+            views.add(renderStatistics != null ? createCallbackView() : createEmbeddedView());
+        }
+        playerPool = new PlayerPool(container, cardLayout, controlExecutor, views, preparedMediaCache,
+                latencyRecorder, cueStatistics, options.isSound(), posterFrameCache != null, compositor);
+        controlExecutor.execute(playerPool::init);
+    }
+
+    private PlayerView createCallbackView() {
+        final CallbackPlayerView view = new CallbackPlayerView(mediaPlayerFactory, renderStatistics);
+        view.addKeyListener(keyListener);
+        view.addMouseListener(mouseListener);
+        view.getMediaPlayer().events().addMediaPlayerEventListener(new MediaPlayerEventAdapter() {
+            @Override
+            public void finished(final MediaPlayer mediaPlayer) {
+                onFinished(mediaPlayer);
+            }
+        });
+        return view;
+    }
+
+    private PlayerView createEmbeddedView() {
+        final EmbeddedMediaPlayerComponent component = new EmbeddedMediaPlayerComponent(
+                MediaPlayerSpecs.embeddedMediaPlayerSpec().withFactory(mediaPlayerFactory)) {
+            @Override
+            public void keyPressed(final KeyEvent e) {
+                keyListener.keyPressed(e);
+            }
+
+            @Override
+            public void mousePressed(final MouseEvent e) {
+                mouseListener.mousePressed(e);
+            }
+
+            @Override
+            public void finished(final MediaPlayer mediaPlayer) {
+                onFinished(mediaPlayer);
+            }
+        };
+        return new PlayerView() {
+            @Override
+            public Component getComponent() {
+                return component;
+            }
+
+            @Override
+            public EmbeddedMediaPlayer getMediaPlayer() {
+                return component.mediaPlayer();
+            }
+
+            @Override
+            public void release() {
+                component.release();
+            }
+        };
+    }
+
+    private void onFinished(final MediaPlayer mediaPlayer) {
+        controlExecutor.execute(() -> {
+            if (playerPool.isFront(mediaPlayer)) {
+                stop();
+                showBlack();
+            }
+        });
+    }
+
+    @Override
+    public void load(final List<String> mrls, final long[] crossfadeMillis, final List<ClipCue> cues) {
+        this.crossfadeMillis = compositor != null ? crossfadeMillis.clone() : new long[mrls.size()];
+        final long[] cueStartMillis = new long[cues.size()];
+        for (int i = 0; i < cueStartMillis.length; i++) {
+            cueStartMillis[i] = cues.get(i).getStartMillis();
+        }
+        playerPool.setCueStarts(cueStartMillis);
+        preparedMediaCache.setMrls(mrls, cues).forEach(playerPool::forget);
+        options.getPinnedClips().forEach(preparedMediaCache::pin);
+        if (posterFrameCache != null) {
+            posterFrameCache.load(mrls, cues);
+        }
+    }
+
+    @Override
+    public void prepare(final int clip) {
+        if (!preparedMediaCache.isLoaded(clip)) {
+            return;
+        }
+        playerPool.prime(clip);
+    }
+
+    @Override
+    public void preload(final int clip) {
+        if (!preparedMediaCache.isLoaded(clip)) {
+            return;
+        }
+        if (!playerPool.primeIfIdle(clip)) {
+            preparedMediaCache.preload(clip);
+        }
+    }
+
+    @Override
+    public void play(final int clip, final long receivedNanos, final long dispatchedNanos) {
+        if (!preparedMediaCache.isLoaded(clip)) {
+            log.debug("Clip {} was removed", clip);
+            return;
+        }
+        final long crossfade = clip < crossfadeMillis.length ? crossfadeMillis[clip] : 0;
+        if (posterFrameCache != null && crossfade <= 0) {
+            showPoster(clip);
+        }
+        cutGeneration++;
+        playerPool.cut(clip, crossfade, receivedNanos, dispatchedNanos);
+    }
+
+    @Override
+    public void stop() {
+        playerPool.stop();
+        if (compositor != null) {
+            SwingUtilities.invokeLater(compositor::clear);
+        }
+    }
+
+    @Override
+    public void fadeToBlack(final long fadeMillis) {
+        if (compositor == null || fadeMillis <= 0) {
+            stop();
+            showBlack();
+            return;
+        }
+        final long fadeGeneration = cutGeneration;
+        SwingUtilities.invokeLater(() -> compositor.fadeToBlack(fadeMillis, () -> controlExecutor.execute(() -> {
+            if (cutGeneration == fadeGeneration) {
+                stop();
+                showBlack();
+            }
+        })));
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return playerPool.isPlaying();
+    }
+
+    @Override
+    public long playbackTime() {
+        return playerPool.time();
+    }
+
+    @Override
+    public String playerState() {
+        return playerPool != null ? playerPool.state() : "NOTHING_SPECIAL";
+    }
+
+    @Override
+    public void setRate(final float rate) {
+        playerPool.setRate(rate);
+    }
+
+    @Override
+    public void seek(final long timeMillis) {
+        playerPool.seek(timeMillis);
+    }
+
+    @Override
+    public void setPosition(final float position) {
+        playerPool.setPosition(position);
+    }
+
+    @Override
+    public void setVolume(final int volume) {
+        playerPool.setVolume(volume);
+    }
+
+    @Override
+    public void setBrightness(final float brightness) {
+        if (compositor != null) {
+            compositor.setOpacity(brightness);
+        } else {
+            playerPool.setBrightness(brightness);
+        }
+    }
+
+    @Override
+    public void showBlack() {
+        SwingUtilities.invokeLater(() -> cardLayout.show(container, blackCard));
+    }
+
+    private void showPoster(final int clip) {
+        final PosterFrameCache.Poster poster = posterFrameCache.get(clip);
+        if (poster == null) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            cardLayout.show(container, POSTER_CARD);
+            posterPanel.show(poster);
+        });
+    }
+
+    @Override
+    public void release() {
+        log.info("Prepared media cache: {} hits, {} misses, {} evictions", preparedMediaCache.getHits(),
+                preparedMediaCache.getMisses(), preparedMediaCache.getEvictions());
+        log.info("Player pool: {} primed cuts, {} cold cuts, switch latency {}", playerPool.getPrimedCuts(),
+                playerPool.getColdCuts(), playerPool.getSwitchLatency().summary());
+        if (renderStatistics != null) {
+            log.info(renderStatistics.report());
+        }
+        if (cueStatistics.getSeekCost().getCount() > 0) {
+            log.info(cueStatistics.report());
+        }
+        playerPool.stop();
+        preparedMediaCache.clear();
+        playerPool.release();
+        if (compositor != null) {
+            compositor.release();
+        }
+        if (posterFrameCache != null) {
+            log.info(posterFrameCache.report());
+            posterFrameCache.release();
+        }
+        mediaPlayerFactory.release();
+    }
+}
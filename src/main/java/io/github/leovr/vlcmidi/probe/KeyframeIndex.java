@@ -0,0 +1,47 @@
+package io.github.leovr.vlcmidi.probe;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.util.Arrays;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeyframeIndex {
+
+    private String filePath;
+    private long size;
+    private long lastModified;
+    private boolean supported;
+    private long[] keyframeMillis;
+
+    public static KeyframeIndex of(final File file, final long[] keyframeMillis) {
+        return KeyframeIndex.builder().filePath(file.getAbsolutePath()).size(file.length())
+                .lastModified(file.lastModified()).supported(keyframeMillis != null)
+                .keyframeMillis(keyframeMillis != null ? keyframeMillis : new long[0]).build();
+    }
+
+    @JsonIgnore
+    public boolean matches(final File file) {
+        return file.length() == size && file.lastModified() == lastModified;
+    }
+
+    @JsonIgnore
+    public long keyframeAtOrBefore(final long millis) {
+        if (!supported || keyframeMillis.length == 0) {
+            return millis;
+        }
+        final int index = Arrays.binarySearch(keyframeMillis, millis);
+        if (index >= 0) {
+            return keyframeMillis[index];
+        }
+        final int insertionPoint = -index - 1;
+        return insertionPoint > 0 ? keyframeMillis[insertionPoint - 1] : 0;
+    }
+}
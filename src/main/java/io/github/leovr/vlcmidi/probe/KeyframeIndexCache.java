@@ -0,0 +1,82 @@
+package io.github.leovr.vlcmidi.probe;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+public class KeyframeIndexCache {
+
+    private final File cacheFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, KeyframeIndex> entries;
+    private boolean dirty;
+
+    public KeyframeIndexCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public synchronized Optional<KeyframeIndex> get(final File file) {
+        final KeyframeIndex keyframeIndex = entries().get(file.getAbsolutePath());
+        if (keyframeIndex == null || !keyframeIndex.matches(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(keyframeIndex);
+    }
+
+    public synchronized void put(final KeyframeIndex keyframeIndex) {
+        entries().put(keyframeIndex.getFilePath(), keyframeIndex);
+        dirty = true;
+    }
+
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        final File directory = cacheFile.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Could not create keyframe index directory {}", directory);
+            return;
+        }
+        try {
+            final File temporaryFile = new File(directory, cacheFile.getName() + ".tmp");
+            objectMapper.writeValue(temporaryFile, entries);
+            if (!temporaryFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                if (!temporaryFile.renameTo(cacheFile)) {
+                    log.warn("Could not replace keyframe index {}", cacheFile);
+                    return;
+                }
+            }
+            dirty = false;
+        } catch (final IOException e) {
+            log.warn("Could not write keyframe index {}", cacheFile, e);
+        }
+    }
+
+    private Map<String, KeyframeIndex> entries() {
+        if (entries == null) {
+            entries = load();
+        }
+        return entries;
+    }
+
+    private Map<String, KeyframeIndex> load() {
+        if (!cacheFile.exists()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(cacheFile, new TypeReference<HashMap<String, KeyframeIndex>>() {
+            });
+        } catch (final IOException e) {
+            log.warn("Could not read keyframe index {}, indexing all files again", cacheFile, e);
+            return new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.leovr.vlcmidi.probe;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class KeyframeIndexer {
+
+    private final KeyframeIndexCache cache;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong unsupported = new AtomicLong();
+
+    public KeyframeIndexer(final File cacheFile) {
+        cache = new KeyframeIndexCache(cacheFile);
+    }
+
+    public KeyframeIndex index(final File file) {
+        final KeyframeIndex cached = cache.get(file).orElse(null);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+        long[] keyframeMillis;
+        try {
+            keyframeMillis = Mp4KeyframeReader.read(file);
+        } catch (final IOException e) {
+            log.debug("Could not read keyframes of {}", file, e);
+            keyframeMillis = null;
+        }
+        final KeyframeIndex keyframeIndex = KeyframeIndex.of(file, keyframeMillis);
+        if (keyframeIndex.isSupported()) {
+            indexed.incrementAndGet();
+        } else {
+            unsupported.incrementAndGet();
+            log.info("No keyframe index for {}, cueing it with an exact seek", file);
+        }
+        cache.put(keyframeIndex);
+        return keyframeIndex;
+    }
+
+    public void save() {
+        cache.save();
+    }
+
+    public String report() {
+        return String.format("Keyframe index: %d cached, %d indexed, %d unsupported", cacheHits.get(), indexed.get(),
+                unsupported.get());
+    }
+}
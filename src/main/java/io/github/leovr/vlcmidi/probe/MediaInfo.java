@@ -0,0 +1,60 @@
+package io.github.leovr.vlcmidi.probe;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaInfo {
+
+    private String filePath;
+    private long size;
+    private long lastModified;
+    private ProbeStatus status;
+    private long durationMillis;
+    private String videoCodec;
+    private int width;
+    private int height;
+    private double frameRate;
+    private String audioCodec;
+    private int audioChannels;
+
+    public static MediaInfo of(final File file, final ProbeStatus status) {
+        return MediaInfo.builder().filePath(file.getAbsolutePath()).size(file.length())
+                .lastModified(file.lastModified()).status(status).build();
+    }
+
+    @JsonIgnore
+    public boolean isPlayable() {
+        return status == ProbeStatus.OK;
+    }
+
+    @JsonIgnore
+    public boolean matches(final File file) {
+        return file.length() == size && file.lastModified() == lastModified;
+    }
+
+    @JsonIgnore
+    public String getSummary() {
+        final long seconds = TimeUnit.MILLISECONDS.toSeconds(durationMillis);
+        final StringBuilder summary = new StringBuilder(String.format("%d:%02d", seconds / 60, seconds % 60));
+        if (videoCodec != null) {
+            summary.append(String.format(" %dx%d %s", width, height, videoCodec));
+            if (frameRate > 0) {
+                summary.append(String.format(" %.2f fps", frameRate));
+            }
+        }
+        if (audioCodec != null) {
+            summary.append(String.format(" %s %dch", audioCodec, audioChannels));
+        }
+        return summary.toString();
+    }
+}
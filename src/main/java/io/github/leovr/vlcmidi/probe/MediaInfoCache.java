@@ -0,0 +1,82 @@
+package io.github.leovr.vlcmidi.probe;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+public class MediaInfoCache {
+
+    private final File cacheFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, MediaInfo> entries;
+    private boolean dirty;
+
+    public MediaInfoCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public synchronized Optional<MediaInfo> get(final File file) {
+        final MediaInfo mediaInfo = entries().get(file.getAbsolutePath());
+        if (mediaInfo == null || !mediaInfo.matches(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(mediaInfo);
+    }
+
+    public synchronized void put(final MediaInfo mediaInfo) {
+        entries().put(mediaInfo.getFilePath(), mediaInfo);
+        dirty = true;
+    }
+
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        final File directory = cacheFile.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Could not create media cache directory {}", directory);
+            return;
+        }
+        try {
+            final File temporaryFile = new File(directory, cacheFile.getName() + ".tmp");
+            objectMapper.writeValue(temporaryFile, entries);
+            if (!temporaryFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                if (!temporaryFile.renameTo(cacheFile)) {
+                    log.warn("Could not replace media cache {}", cacheFile);
+                    return;
+                }
+            }
+            dirty = false;
+        } catch (final IOException e) {
+            log.warn("Could not write media cache {}", cacheFile, e);
+        }
+    }
+
+    private Map<String, MediaInfo> entries() {
+        if (entries == null) {
+            entries = load();
+        }
+        return entries;
+    }
+
+    private Map<String, MediaInfo> load() {
+        if (!cacheFile.exists()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(cacheFile, new TypeReference<HashMap<String, MediaInfo>>() {
+            });
+        } catch (final IOException e) {
+            log.warn("Could not read media cache {}, probing all files again", cacheFile, e);
+            return new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.leovr.vlcmidi.probe;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.media.AudioTrackInfo;
+import uk.co.caprica.vlcj.media.Media;
+import uk.co.caprica.vlcj.media.MediaEventAdapter;
+import uk.co.caprica.vlcj.media.MediaParsedStatus;
+import uk.co.caprica.vlcj.media.ParseFlag;
+import uk.co.caprica.vlcj.media.TrackInfo;
+import uk.co.caprica.vlcj.media.TrackType;
+import uk.co.caprica.vlcj.media.VideoTrackInfo;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@Slf4j
+public class MediaProber {
+
+    private static final int PARSE_TIMEOUT_MILLIS = 10000;
+
+    private final MediaInfoCache cache;
+    private final CompletableFuture<?> libvlcReady;
+    private final ExecutorService executor;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong probed = new AtomicLong();
+    private MediaPlayerFactory mediaPlayerFactory;
+
+    public MediaProber(final File cacheFile, final CompletableFuture<?> libvlcReady) {
+        this.cache = new MediaInfoCache(cacheFile);
+        this.libvlcReady = libvlcReady;
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            final Thread thread = new Thread(runnable, "media-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Void> probe(final List<File> files, final Consumer<MediaInfo> onResult) {
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<?>[] probes = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> probe(file), executor).thenAccept(onResult))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(probes).whenComplete((ignored, throwable) -> {
+            cache.save();
+            log.info("Probed {} files in {} ms ({} cached, {} probed)", files.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), cacheHits.get(), probed.get());
+        });
+    }
+
+    public MediaInfo probe(final File file) {
+        if (!file.exists()) {
+            return MediaInfo.of(file, ProbeStatus.MISSING);
+        }
+        if (!file.isFile() || !file.canRead()) {
+            return MediaInfo.of(file, ProbeStatus.UNREADABLE);
+        }
+        final MediaInfo cached = cache.get(file).orElse(null);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+        final MediaInfo mediaInfo = parse(file);
+        probed.incrementAndGet();
+        if (mediaInfo.getStatus() != ProbeStatus.TIMEOUT) {
+            cache.put(mediaInfo);
+        }
+        return mediaInfo;
+    }
+
+    public synchronized void release() {
+        executor.shutdownNow();
+        if (mediaPlayerFactory != null) {
+            mediaPlayerFactory.release();
+            mediaPlayerFactory = null;
+        }
+    }
+
+    private MediaInfo parse(final File file) {
+        final MediaInfo mediaInfo = MediaInfo.of(file, ProbeStatus.UNDECODABLE);
+        final Media media = mediaPlayerFactory().media().newMedia(file.getAbsolutePath());
+        if (media == null) {
+            return mediaInfo;
+        }
+        try {
+            final CountDownLatch parsed = new CountDownLatch(1);
+            final AtomicReference<MediaParsedStatus> parsedStatus = new AtomicReference<>();
+            media.events().addMediaEventListener(new MediaEventAdapter() {
+                @Override
+                public void mediaParsedChanged(final Media media, final MediaParsedStatus newStatus) {
+                    parsedStatus.set(newStatus);
+                    parsed.countDown();
+                }
+            });
+            if (!media.parsing().parse(PARSE_TIMEOUT_MILLIS, ParseFlag.PARSE_LOCAL) ||
+                    !parsed.await(PARSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) ||
+                    parsedStatus.get() == MediaParsedStatus.TIMEOUT) {
+                log.warn("Parsing {} timed out", file);
+                mediaInfo.setStatus(ProbeStatus.TIMEOUT);
+                return mediaInfo;
+            }
+            if (parsedStatus.get() != MediaParsedStatus.DONE) {
+                log.warn("Could not parse {}: {}", file, parsedStatus.get());
+                return mediaInfo;
+            }
+            mediaInfo.setDurationMillis(media.info().duration());
+            final List<TrackInfo> tracks = media.info().tracks(TrackType.VIDEO, TrackType.AUDIO);
+            for (final TrackInfo track : tracks) {
+                if (track instanceof VideoTrackInfo && mediaInfo.getVideoCodec() == null) {
+                    final VideoTrackInfo videoTrack = (VideoTrackInfo) track;
+                    mediaInfo.setVideoCodec(videoTrack.codecName());
+                    mediaInfo.setWidth(videoTrack.width());
+                    mediaInfo.setHeight(videoTrack.height());
+                    if (videoTrack.frameRateBase() > 0) {
+                        mediaInfo.setFrameRate((double) videoTrack.frameRate() / videoTrack.frameRateBase());
+                    }
+                } else if (track instanceof AudioTrackInfo && mediaInfo.getAudioCodec() == null) {
+                    final AudioTrackInfo audioTrack = (AudioTrackInfo) track;
+                    mediaInfo.setAudioCodec(audioTrack.codecName());
+                    mediaInfo.setAudioChannels(audioTrack.channels());
+                }
+            }
+            if (mediaInfo.getVideoCodec() != null) {
+                mediaInfo.setStatus(ProbeStatus.OK);
+            }
+            return mediaInfo;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mediaInfo.setStatus(ProbeStatus.TIMEOUT);
+            return mediaInfo;
+        } finally {
+            media.release();
+        }
+    }
+
+    private synchronized MediaPlayerFactory mediaPlayerFactory() {
+        if (mediaPlayerFactory == null) {
+            libvlcReady.join();
+            mediaPlayerFactory = new MediaPlayerFactory("--quiet");
+        }
+        return mediaPlayerFactory;
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.leovr.vlcmidi.probe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the sync sample table of the first video track of an MP4 or QuickTime file. Returns the keyframe times in
+ * milliseconds, an empty array when every frame is a keyframe and {@code null} for files it cannot index.
+ */
+public final class Mp4KeyframeReader {
+
+    private static final long MAX_MOVIE_BOX_BYTES = 64L << 20;
+    private static final List<String> TOP_LEVEL_BOXES = Arrays.asList("ftyp", "moov", "mdat", "free", "skip", "wide");
+
+    private Mp4KeyframeReader() {
+    }
+
+    public static long[] read(final File file) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            final ByteBuffer movie = readMovieBox(input);
+            if (movie == null) {
+                return null;
+            }
+            for (final ByteBuffer track : children(movie, "trak")) {
+                final ByteBuffer media = child(track, "mdia");
+                if (media == null || !isVideo(child(media, "hdlr"))) {
+                    continue;
+                }
+                final ByteBuffer mediaHeader = child(media, "mdhd");
+                final ByteBuffer mediaInformation = child(media, "minf");
+                final ByteBuffer sampleTable = mediaInformation != null ? child(mediaInformation, "stbl") : null;
+                if (mediaHeader == null || sampleTable == null) {
+                    return null;
+                }
+                return keyframeMillis(timescale(mediaHeader), child(sampleTable, "stts"),
+                        child(sampleTable, "stss"));
+            }
+            return null;
+        }
+    }
+
+    private static ByteBuffer readMovieBox(final RandomAccessFile input) throws IOException {
+        long position = 0;
+        final byte[] header = new byte[16];
+        while (position + 8 <= input.length()) {
+            input.seek(position);
+            input.readFully(header, 0, 8);
+            final ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            long size = headerBuffer.getInt(0) & 0xFFFFFFFFL;
+            final String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            if (position == 0 && !TOP_LEVEL_BOXES.contains(type)) {
+                return null;
+            }
+            int headerSize = 8;
+            if (size == 1) {
+                input.readFully(header, 8, 8);
+                size = headerBuffer.getLong(8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = input.length() - position;
+            }
+            if (size < headerSize) {
+                return null;
+            }
+            if ("moov".equals(type)) {
+                if (size > MAX_MOVIE_BOX_BYTES) {
+                    return null;
+                }
+                final byte[] movie = new byte[(int) size - headerSize];
+                input.readFully(movie);
+                return ByteBuffer.wrap(movie);
+            }
+            position += size;
+        }
+        return null;
+    }
+
+    private static long[] keyframeMillis(final long timescale, final ByteBuffer timeToSample,
+                                         final ByteBuffer syncSamples) {
+        if (timescale <= 0 || timeToSample == null) {
+            return null;
+        }
+        if (syncSamples == null) {
+            return new long[0];
+        }
+        final int keyframes = syncSamples.getInt(4);
+        final int entries = timeToSample.getInt(4);
+        if (keyframes < 0 || entries < 0 || 8 + (long) keyframes * 4 > syncSamples.limit() ||
+                8 + (long) entries * 8 > timeToSample.limit()) {
+            return null;
+        }
+        final long[] millis = new long[keyframes];
+        int entry = 0;
+        long entryFirstSample = 1;
+        long entryStartTime = 0;
+        for (int i = 0; i < keyframes; i++) {
+            final long sample = syncSamples.getInt(8 + i * 4) & 0xFFFFFFFFL;
+            while (entry < entries) {
+                final long count = timeToSample.getInt(8 + entry * 8) & 0xFFFFFFFFL;
+                if (sample < entryFirstSample + count) {
+                    break;
+                }
+                entryFirstSample += count;
+                entryStartTime += count * (timeToSample.getInt(12 + entry * 8) & 0xFFFFFFFFL);
+                entry++;
+            }
+            if (entry == entries) {
+                return Arrays.copyOf(millis, i);
+            }
+            final long delta = timeToSample.getInt(12 + entry * 8) & 0xFFFFFFFFL;
+            millis[i] = (entryStartTime + (sample - entryFirstSample) * delta) * 1000 / timescale;
+        }
+        return millis;
+    }
+
+    private static long timescale(final ByteBuffer mediaHeader) {
+        return (mediaHeader.get(0) == 1 ? mediaHeader.getInt(20) : mediaHeader.getInt(12)) & 0xFFFFFFFFL;
+    }
+
+    private static boolean isVideo(final ByteBuffer handler) {
+        return handler != null && handler.limit() >= 12 &&
+                handler.getInt(8) == ByteBuffer.wrap("vide".getBytes(StandardCharsets.ISO_8859_1)).getInt();
+    }
+
+    private static ByteBuffer child(final ByteBuffer parent, final String type) {
+        final List<ByteBuffer> children = children(parent, type);
+        return children.isEmpty() ? null : children.get(0);
+    }
+
+    private static List<ByteBuffer> children(final ByteBuffer parent, final String type) {
+        final List<ByteBuffer> children = new ArrayList<>();
+        final byte[] boxType = new byte[4];
+        int position = 0;
+        while (position + 8 <= parent.limit()) {
+            final long size = parent.getInt(position) & 0xFFFFFFFFL;
+            if (size < 8 || position + size > parent.limit()) {
+                break;
+            }
+            for (int i = 0; i < 4; i++) {
+                boxType[i] = parent.get(position + 4 + i);
+            }
+            if (type.equals(new String(boxType, StandardCharsets.ISO_8859_1))) {
+                final ByteBuffer child = parent.duplicate();
+                child.limit(position + (int) size).position(position + 8);
+                children.add(child.slice());
+            }
+            position += (int) size;
+        }
+        return children;
+    }
+}
@@ -0,0 +1,5 @@
+package io.github.leovr.vlcmidi.probe;
+
+public enum ProbeStatus {
+    PENDING, OK, MISSING, UNREADABLE, UNDECODABLE, TIMEOUT
+}
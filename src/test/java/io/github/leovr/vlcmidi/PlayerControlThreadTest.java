@@ -0,0 +1,134 @@
+package io.github.leovr.vlcmidi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PlayerControlThreadTest {
+
+    private final List<String> dispatched = new ArrayList<>();
+    private final CountDownLatch firstCutEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstCut = new CountDownLatch(1);
+    private PlayerControlThread playerControlThread;
+    private volatile long lastCutNanos;
+
+    @After
+    public void tearDown() {
+        releaseFirstCut.countDown();
+        playerControlThread.shutdown();
+    }
+
+    @Test
+    public void latestWinsSkipsEverythingBeforeTheLastCut() throws InterruptedException {
+        start(OverflowPolicy.LATEST_WINS);
+
+        queueBehindBlockedCut();
+
+        assertEquals(Arrays.asList("cut 0", "cut 3", "prime 4"), awaitDispatched(3));
+        assertEquals(2, playerControlThread.getCoalesced());
+    }
+
+    @Test
+    public void latestWinsKeepsAStopAsTheLastCut() throws InterruptedException {
+        start(OverflowPolicy.LATEST_WINS);
+
+        playerControlThread.cut(0, PlayerControlThread.IMMEDIATE);
+        assertTrue(firstCutEntered.await(5, TimeUnit.SECONDS));
+        playerControlThread.cut(1, PlayerControlThread.IMMEDIATE);
+        playerControlThread.stop(PlayerControlThread.IMMEDIATE);
+        releaseFirstCut.countDown();
+
+        assertEquals(Arrays.asList("cut 0", "stop"), awaitDispatched(2));
+        assertEquals(1, playerControlThread.getCoalesced());
+    }
+
+    @Test
+    public void dropOldestDispatchesTheWholeBatch() throws InterruptedException {
+        start(OverflowPolicy.DROP_OLDEST);
+
+        queueBehindBlockedCut();
+
+        assertEquals(Arrays.asList("cut 0", "cut 1", "prime 2", "cut 3", "prime 4"), awaitDispatched(5));
+        assertEquals(0, playerControlThread.getCoalesced());
+    }
+
+    @Test
+    public void waitsForTheDueTime() throws InterruptedException {
+        start(OverflowPolicy.LATEST_WINS);
+        releaseFirstCut.countDown();
+        final long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+
+        playerControlThread.cut(0, dueNanos);
+
+        assertEquals(Collections.singletonList("cut 0"), awaitDispatched(1));
+        assertTrue(lastCutNanos - dueNanos >= 0);
+        assertEquals(1, playerControlThread.getSchedulingError().getCount());
+    }
+
+    private void start(final OverflowPolicy overflowPolicy) {
+        playerControlThread = new PlayerControlThread(new PlayerControlThread.TriggerHandler() {
+            @Override
+            public void prime(final int clip) {
+                record("prime " + clip);
+            }
+
+            @Override
+            public void cut(final int clip, final long receivedNanos, final long dispatchedNanos) {
+                if (firstCutEntered.getCount() > 0) {
+                    firstCutEntered.countDown();
+                    try {
+                        releaseFirstCut.await(5, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                lastCutNanos = dispatchedNanos;
+                record("cut " + clip);
+            }
+
+            @Override
+            public void stop() {
+                record("stop");
+            }
+        }, 16, overflowPolicy, "player-control-test");
+    }
+
+    private void queueBehindBlockedCut() throws InterruptedException {
+        playerControlThread.cut(0, PlayerControlThread.IMMEDIATE);
+        assertTrue(firstCutEntered.await(5, TimeUnit.SECONDS));
+        playerControlThread.cut(1, PlayerControlThread.IMMEDIATE);
+        playerControlThread.prime(2);
+        playerControlThread.cut(3, PlayerControlThread.IMMEDIATE);
+        playerControlThread.prime(4);
+        releaseFirstCut.countDown();
+    }
+
+    private void record(final String event) {
+        synchronized (dispatched) {
+            dispatched.add(event);
+            dispatched.notifyAll();
+        }
+    }
+
+    private List<String> awaitDispatched(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        synchronized (dispatched) {
+            while (dispatched.size() < count && System.currentTimeMillis() < deadline) {
+                dispatched.wait(10);
+            }
+        }
+        Thread.sleep(20);
+        synchronized (dispatched) {
+            return new ArrayList<>(dispatched);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.leovr.vlcmidi;
+
+import com.beust.jcommander.JCommander;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import io.github.leovr.vlcmidi.playback.ClipCue;
+import io.github.leovr.vlcmidi.playback.SimulatedPlaybackBackend;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sound.midi.ShortMessage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TriggerEngineTest {
+
+    private final TriggerLatencyRecorder latencyRecorder = new TriggerLatencyRecorder();
+    private final SimulatedPlaybackBackend backend = new SimulatedPlaybackBackend(0, 0, 0, latencyRecorder) {
+        @Override
+        public void load(final List<String> mrls, final long[] crossfadeMillis, final List<ClipCue> cues) {
+            super.load(mrls, crossfadeMillis, cues);
+            loadedMrls = new ArrayList<>(mrls);
+        }
+    };
+    private final MidiNoteReceiver receiver = new MidiNoteReceiver();
+    private TriggerEngine triggerEngine;
+    private volatile List<String> loadedMrls;
+
+    @After
+    public void tearDown() {
+        triggerEngine.shutdown();
+        backend.release();
+    }
+
+    @Test
+    public void scheduleDelayHoldsTheCutBackFromTheTimestamp() throws InterruptedException {
+        start("--schedule-delay", "50");
+        triggerEngine.load(mappings("a", "b"), Collections.emptyList());
+        final long sentNanos = System.nanoTime();
+
+        receiver.decode(ShortMessage.NOTE_ON, 1, 100, 0);
+        receiver.decode(ShortMessage.NOTE_OFF, 1, 0, 0);
+
+        awaitPlayed(1);
+        assertTrue(System.nanoTime() - sentNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, triggerEngine.getPlayingClip());
+        assertEquals(1, triggerEngine.getPlayerControlThread().getSchedulingError().getCount());
+    }
+
+    @Test
+    public void withoutScheduleDelayTheCutIsNotScheduled() throws InterruptedException {
+        start();
+        triggerEngine.load(mappings("a", "b"), Collections.emptyList());
+
+        receiver.decode(ShortMessage.NOTE_ON, 0, 100, 0);
+        receiver.decode(ShortMessage.NOTE_OFF, 0, 0, 0);
+
+        awaitPlayed(1);
+        assertEquals(0, triggerEngine.getPlayingClip());
+        assertEquals(0, triggerEngine.getPlayerControlThread().getSchedulingError().getCount());
+    }
+
+    @Test
+    public void reloadKeepsTheIndicesOfUnchangedClips() {
+        start();
+        triggerEngine.load(mappings("a", "b", "c"), Collections.emptyList());
+
+        final List<VideoMidiNoteMapping> reloaded = mappings("a", "b", "c", "d");
+        reloaded.remove(1);
+        Collections.swap(reloaded, 0, 1);
+        triggerEngine.load(reloaded, Collections.emptyList());
+
+        assertEquals(Arrays.asList(mrl("a"), null, mrl("c"), mrl("d")), loadedMrls);
+        assertTrue(triggerEngine.isMapped(0, 0));
+        assertFalse(triggerEngine.isMapped(0, 1));
+        assertTrue(triggerEngine.isMapped(0, 2));
+        assertTrue(triggerEngine.isMapped(0, 3));
+    }
+
+    @Test
+    public void reloadMovesANoteWithoutReopeningItsClip() throws InterruptedException {
+        start();
+        triggerEngine.load(mappings("a", "b"), Collections.emptyList());
+
+        final List<VideoMidiNoteMapping> reloaded = mappings("a", "b");
+        reloaded.get(0).setMidiNote(MidiNote.fromNoteNumber(0, 5, true));
+        triggerEngine.load(reloaded, Collections.emptyList());
+        receiver.decode(ShortMessage.NOTE_ON, 5, 100, -1);
+        receiver.decode(ShortMessage.NOTE_OFF, 5, 0, -1);
+
+        awaitPlayed(1);
+        assertEquals(Arrays.asList(mrl("a"), mrl("b")), loadedMrls);
+        assertEquals(0, triggerEngine.getPlayingClip());
+        assertFalse(triggerEngine.isMapped(0, 0));
+    }
+
+    @Test
+    public void reloadGivesAChangedCueANewIndex() {
+        start();
+        triggerEngine.load(mappings("a", "b"), Collections.emptyList());
+
+        final List<VideoMidiNoteMapping> reloaded = mappings("a", "b");
+        reloaded.get(0).setStartMilliseconds(1000L);
+        triggerEngine.load(reloaded, Collections.emptyList());
+
+        assertEquals(Arrays.asList(null, mrl("b"), mrl("a")), loadedMrls);
+    }
+
+    @Test
+    public void reloadKeepsDuplicateFilesApart() {
+        start();
+        triggerEngine.load(mappings("a", "a", "b"), Collections.emptyList());
+
+        triggerEngine.load(mappings("a", "a"), Collections.emptyList());
+
+        assertEquals(Arrays.asList(mrl("a"), mrl("a"), null), loadedMrls);
+        assertTrue(triggerEngine.isMapped(0, 1));
+        assertFalse(triggerEngine.isMapped(0, 2));
+    }
+
+    private void start(final String... args) {
+        final Options options = new Options();
+        new JCommander(options, args);
+        triggerEngine = new TriggerEngine(backend, latencyRecorder, options);
+        triggerEngine.register(receiver);
+    }
+
+    private static List<VideoMidiNoteMapping> mappings(final String... files) {
+        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+        for (int note = 0; note < files.length; note++) {
+            mappings.add(new VideoMidiNoteMapping(new File(files[note] + ".mp4"),
+                    MidiNote.fromNoteNumber(0, note, true)));
+        }
+        return mappings;
+    }
+
+    private static String mrl(final String file) {
+        return new File(file + ".mp4").getAbsolutePath();
+    }
+
+    private void awaitPlayed(final long played) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.getPlayed() < played) {
+            assertTrue("Played " + backend.getPlayed() + " of " + played, System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.leovr.vlcmidi;
+
+import com.beust.jcommander.JCommander;
+import io.github.leovr.vlcmidi.metrics.TriggerLatencyRecorder;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import io.github.leovr.vlcmidi.midi.MidiNoteReceiver;
+import io.github.leovr.vlcmidi.playback.SimulatedPlaybackBackend;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sound.midi.ShortMessage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class TriggerPathAllocationTest {
+
+    private static final int WARM_UP_NOTES = 100_000;
+    private static final int MEASURED_NOTES = 50_000;
+    private static final int NOTES = 16;
+
+    private final TriggerLatencyRecorder latencyRecorder = new TriggerLatencyRecorder();
+    private final SimulatedPlaybackBackend backend = new SimulatedPlaybackBackend(0, 0, 0, latencyRecorder);
+    private final MidiNoteReceiver receiver = new MidiNoteReceiver();
+    private TriggerEngine triggerEngine;
+
+    @After
+    public void tearDown() {
+        triggerEngine.shutdown();
+        backend.release();
+    }
+
+    @Test
+    public void noteToCutDoesNotAllocateOnTheMidiThread() throws InterruptedException {
+        start();
+        assertNoAllocation();
+    }
+
+    @Test
+    public void coalescedNoteDoesNotAllocateOnTheMidiThread() throws InterruptedException {
+        start("--coalesce-window", "1");
+        assertNoAllocation();
+    }
+
+    private void start(final String... args) {
+        final Options options = new Options();
+        new JCommander(options, args);
+        triggerEngine = new TriggerEngine(backend, latencyRecorder, options);
+        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+        for (int note = 0; note < NOTES; note++) {
+            mappings.add(new VideoMidiNoteMapping(new File("clip" + note + ".mp4"),
+                    MidiNote.fromNoteNumber(0, note, true)));
+        }
+        triggerEngine.load(mappings, Collections.emptyList());
+        triggerEngine.register(receiver);
+    }
+
+    private void assertNoAllocation() throws InterruptedException {
+        final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        send(WARM_UP_NOTES);
+        final long executedBefore = triggerEngine.getTriggerPolicy().getExecuted();
+        final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        send(MEASURED_NOTES);
+        final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue("Allocated " + allocatedBytes + " bytes for " + MEASURED_NOTES + " notes",
+                (double) allocatedBytes / MEASURED_NOTES < 1);
+        awaitCut(executedBefore);
+    }
+
+    private void send(final int notes) {
+        for (int i = 0; i < notes; i++) {
+            final int note = i % NOTES;
+            receiver.decode(ShortMessage.NOTE_ON, note, 100, i);
+            receiver.decode(ShortMessage.NOTE_OFF, note, 0, i);
+        }
+    }
+
+    private void awaitCut(final long executedBefore) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (triggerEngine.getTriggerPolicy().getExecuted() == executedBefore) {
+            assertTrue("No cut reached the backend", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+}
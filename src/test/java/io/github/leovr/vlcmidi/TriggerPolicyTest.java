@@ -0,0 +1,184 @@
+package io.github.leovr.vlcmidi;
+
+import com.beust.jcommander.JCommander;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TriggerPolicyTest {
+
+    private static final int CLIPS = 3;
+
+    private final List<Integer> cutClips = new ArrayList<>();
+    private final List<Long> cutNanos = new ArrayList<>();
+    private final PlayerControlThread playerControlThread = new PlayerControlThread(
+            new PlayerControlThread.TriggerHandler() {
+                @Override
+                public void prime(final int clip) {
+                }
+
+                @Override
+                public void cut(final int clip, final long receivedNanos, final long dispatchedNanos) {
+                    synchronized (cutClips) {
+                        cutClips.add(clip);
+                        cutNanos.add(dispatchedNanos);
+                    }
+                }
+
+                @Override
+                public void stop() {
+                }
+            }, 16, OverflowPolicy.DROP_OLDEST, "player-control-test");
+    private TriggerPolicy triggerPolicy;
+
+    @After
+    public void tearDown() {
+        playerControlThread.shutdown();
+    }
+
+    @Test
+    public void restartCutsEveryTrigger() throws InterruptedException {
+        start(mappings());
+
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+
+        assertEquals(Arrays.asList(0, 0), awaitCuts(2, 0));
+    }
+
+    @Test
+    public void minRetriggerSuppressesEarlyRetrigger() throws InterruptedException {
+        start(mappings(), "--min-retrigger", "1000");
+
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(1, PlayerControlThread.IMMEDIATE);
+
+        assertEquals(Arrays.asList(0, 1), awaitCuts(2, 50));
+        assertEquals(1, triggerPolicy.getSuppressed());
+    }
+
+    @Test
+    public void queueDelaysEarlyRetriggerAndCoalescesFurtherOnes() throws InterruptedException {
+        start(mappings(), "--min-retrigger", "40", "--retrigger", "QUEUE");
+        final long firstNanos = System.nanoTime();
+
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+
+        assertEquals(Arrays.asList(0, 0), awaitCuts(2, 100));
+        assertTrue(cutNanos.get(1) - firstNanos >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(1, triggerPolicy.getQueued());
+        assertEquals(1, triggerPolicy.getCoalesced());
+    }
+
+    @Test
+    public void coalesceWindowRestartsOnEachTrigger() throws InterruptedException {
+        start(mappings(), "--coalesce-window", "60");
+
+        long lastTriggerNanos = 0;
+        for (int i = 0; i < 4; i++) {
+            lastTriggerNanos = System.nanoTime();
+            triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+            Thread.sleep(20);
+        }
+
+        assertEquals(Collections.singletonList(0), awaitCuts(1, 150));
+        assertTrue(cutNanos.get(0) - lastTriggerNanos >= TimeUnit.MILLISECONDS.toNanos(60));
+        assertEquals(3, triggerPolicy.getCoalesced());
+    }
+
+    @Test
+    public void coalescedCutKeepsItsDueTimeShiftedByTheWindow() throws InterruptedException {
+        start(mappings(), "--coalesce-window", "10");
+        final long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+
+        triggerPolicy.trigger(0, dueNanos);
+
+        assertEquals(Collections.singletonList(0), awaitCuts(1, 50));
+        assertTrue(cutNanos.get(0) - dueNanos >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void newerCutDropsAPendingDeferral() throws InterruptedException {
+        final List<VideoMidiNoteMapping> mappings = mappings();
+        mappings.get(0).setCoalesceWindowMilliseconds(30L);
+        start(mappings);
+
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        triggerPolicy.trigger(1, PlayerControlThread.IMMEDIATE);
+
+        assertEquals(Collections.singletonList(1), awaitCuts(1, 100));
+        assertEquals(1, triggerPolicy.getCoalesced());
+    }
+
+    @Test
+    public void deferralOfARemovedClipIsDropped() throws InterruptedException {
+        start(mappings(), "--coalesce-window", "30");
+
+        triggerPolicy.trigger(0, PlayerControlThread.IMMEDIATE);
+        final List<VideoMidiNoteMapping> reloaded = mappings();
+        reloaded.set(0, null);
+        triggerPolicy.load(reloaded);
+
+        assertEquals(Collections.emptyList(), awaitCuts(0, 100));
+    }
+
+    @Test
+    public void mappingOverridesTheDefaultMode() {
+        final List<VideoMidiNoteMapping> mappings = mappings();
+        mappings.get(2).setRetriggerMode(RetriggerMode.IGNORE_IF_PLAYING);
+        start(mappings);
+
+        assertFalse(triggerPolicy.ignoresWhilePlaying(0));
+        assertTrue(triggerPolicy.ignoresWhilePlaying(2));
+        assertFalse(triggerPolicy.ignoresWhilePlaying(CLIPS));
+    }
+
+    private void start(final List<VideoMidiNoteMapping> mappings, final String... args) {
+        final Options options = new Options();
+        new JCommander(options, args);
+        triggerPolicy = new TriggerPolicy(playerControlThread, options);
+        playerControlThread.setDeferredTriggers(triggerPolicy);
+        triggerPolicy.load(mappings);
+    }
+
+    private static List<VideoMidiNoteMapping> mappings() {
+        final List<VideoMidiNoteMapping> mappings = new ArrayList<>();
+        for (int note = 0; note < CLIPS; note++) {
+            mappings.add(new VideoMidiNoteMapping(new File("clip" + note + ".mp4"),
+                    MidiNote.fromNoteNumber(0, note, true)));
+        }
+        return mappings;
+    }
+
+    private List<Integer> awaitCuts(final int count, final long settleMillis) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cutCount() < count) {
+            assertTrue("Cut " + cutCount() + " of " + count, System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        Thread.sleep(settleMillis);
+        synchronized (cutClips) {
+            return new ArrayList<>(cutClips);
+        }
+    }
+
+    private int cutCount() {
+        synchronized (cutClips) {
+            return cutClips.size();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.leovr.vlcmidi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TriggerRingTest {
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(4, new TriggerRing(3).capacity());
+        assertEquals(8, new TriggerRing(8).capacity());
+        assertEquals(16, new TriggerRing(9).capacity());
+    }
+
+    @Test
+    public void drainsInOfferOrder() {
+        final TriggerRing ring = new TriggerRing(8);
+        for (int i = 0; i < 5; i++) {
+            ring.offer(i, 100 + i, 200 + i);
+        }
+
+        final int[] events = new int[8];
+        final long[] timestamps = new long[8];
+        final long[] dueTimes = new long[8];
+        assertEquals(5, ring.drainTo(events, timestamps, dueTimes));
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 0, 0, 0}, events);
+        assertArrayEquals(new long[]{100, 101, 102, 103, 104, 0, 0, 0}, timestamps);
+        assertArrayEquals(new long[]{200, 201, 202, 203, 204, 0, 0, 0}, dueTimes);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    public void fullRingDropsTheOldestEvents() {
+        final TriggerRing ring = new TriggerRing(4);
+        for (int i = 0; i < 7; i++) {
+            ring.offer(i, i, PlayerControlThread.IMMEDIATE);
+        }
+
+        assertEquals(3, ring.getDropped());
+        assertEquals(4, ring.size());
+        final int[] events = new int[4];
+        assertEquals(4, ring.drainTo(events, new long[4], new long[4]));
+        assertArrayEquals(new int[]{3, 4, 5, 6}, events);
+    }
+
+    @Test
+    public void drainStopsAtTheOutputLength() {
+        final TriggerRing ring = new TriggerRing(8);
+        for (int i = 0; i < 6; i++) {
+            ring.offer(i, i, PlayerControlThread.IMMEDIATE);
+        }
+
+        final int[] events = new int[4];
+        assertEquals(4, ring.drainTo(events, new long[4], new long[4]));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, events);
+        assertEquals(2, ring.drainTo(events, new long[4], new long[4]));
+        assertEquals(4, events[0]);
+        assertEquals(5, events[1]);
+    }
+}
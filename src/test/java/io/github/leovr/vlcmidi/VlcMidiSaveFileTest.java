@@ -0,0 +1,86 @@
+package io.github.leovr.vlcmidi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.leovr.vlcmidi.midi.MidiNote;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VlcMidiSaveFileTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void readsWhatWasWritten() throws IOException {
+        final VideoMidiNoteMapping mapping = new VideoMidiNoteMapping(new File("a.mp4"),
+                MidiNote.fromNoteNumber(1, 60, true));
+        mapping.setCrossfadeMilliseconds(200L);
+        mapping.setRetriggerMode(RetriggerMode.QUEUE);
+        mapping.setStartMilliseconds(1500L);
+        final VlcMidiSaveFile saveFile = new VlcMidiSaveFile(Collections.singletonList(mapping),
+                Arrays.asList(MidiNote.fromNoteNumber(1, 60, true), MidiNote.fromNoteNumber(1, 62, true)));
+        final File file = temporaryFile();
+        objectMapper.writeValue(file, saveFile);
+
+        assertEquals(Optional.of(saveFile), VlcMidiSaveFile.read(objectMapper, file));
+    }
+
+    @Test
+    public void readsFieldsInAnyOrderAndSkipsUnknownOnes() throws IOException {
+        final File file = write("{\"version\": {\"major\": 2, \"tags\": [1, 2]}, " +
+                "\"setlist\": [{\"note\": \"D\", \"octave\": 3, \"channel\": 0, \"start\": true}], " +
+                "\"mappings\": [{\"filePath\": \"/videos/b.mp4\", " +
+                "\"midiNote\": {\"note\": \"D\", \"octave\": 3, \"channel\": 0, \"start\": true}}]}");
+
+        final VlcMidiSaveFile saveFile = VlcMidiSaveFile.read(objectMapper, file).get();
+
+        assertEquals(1, saveFile.getMappings().size());
+        assertEquals("/videos/b.mp4", saveFile.getMappings().get(0).getFilePath());
+        assertEquals(Collections.singletonList(new MidiNote("D", 3, 0, true)), saveFile.getSetlist());
+    }
+
+    @Test
+    public void missingListsAreEmpty() throws IOException {
+        final VlcMidiSaveFile saveFile = VlcMidiSaveFile.read(objectMapper, write("{\"mappings\": null}")).get();
+
+        assertTrue(saveFile.getMappings().isEmpty());
+        assertTrue(saveFile.getSetlist().isEmpty());
+    }
+
+    @Test
+    public void malformedFileIsNotRead() throws IOException {
+        assertFalse(VlcMidiSaveFile.read(objectMapper, write("[]")).isPresent());
+        assertFalse(VlcMidiSaveFile.read(objectMapper, write("{\"mappings\": {}}")).isPresent());
+        assertFalse(VlcMidiSaveFile.read(objectMapper, write("{\"mappings\": [")).isPresent());
+    }
+
+    @Test
+    public void missingFileIsNotRead() throws IOException {
+        final File file = temporaryFile();
+        Files.delete(file.toPath());
+
+        assertFalse(VlcMidiSaveFile.read(objectMapper, file).isPresent());
+    }
+
+    private static File write(final String json) throws IOException {
+        final File file = temporaryFile();
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static File temporaryFile() throws IOException {
+        final File file = File.createTempFile("vlc-midi", ".json");
+        file.deleteOnExit();
+        return file;
+    }
+}
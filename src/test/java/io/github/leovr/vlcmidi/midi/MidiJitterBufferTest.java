@@ -0,0 +1,115 @@
+package io.github.leovr.vlcmidi.midi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Receiver;
+import javax.sound.midi.ShortMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MidiJitterBufferTest {
+
+    private static final long MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final List<MidiMessage> released = new ArrayList<>();
+    private final List<Long> releasedTimeStamps = new ArrayList<>();
+    private final MidiJitterBuffer jitterBuffer = new MidiJitterBuffer(new Receiver() {
+        @Override
+        public void send(final MidiMessage message, final long timeStamp) {
+            synchronized (released) {
+                released.add(message);
+                releasedTimeStamps.add(timeStamp);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }, MAX_DELAY_NANOS);
+
+    @After
+    public void tearDown() {
+        jitterBuffer.close();
+    }
+
+    @Test
+    public void releasesInEventTimeOrderAcrossSessions() throws InvalidMidiDataException, InterruptedException {
+        final RtpMidiSessionReceiver[] sessions = {jitterBuffer.newSession("a"), jitterBuffer.newSession("b")};
+        final int count = 300;
+        final MidiMessage[] byEventTime = new MidiMessage[count];
+        final long baseNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < count; i++) {
+            final int rank = i * 7 % count;
+            final MidiMessage message = note(rank % 128);
+            byEventTime[rank] = message;
+            jitterBuffer.offer(sessions[i % 2], message, baseNanos + TimeUnit.MICROSECONDS.toNanos(100) * rank);
+        }
+
+        final List<MidiMessage> releasedMessages = awaitReleased(count);
+
+        for (int rank = 0; rank < count; rank++) {
+            assertSame("Message " + rank, byEventTime[rank], releasedMessages.get(rank));
+        }
+        synchronized (released) {
+            for (int rank = 1; rank < count; rank++) {
+                assertTrue(releasedTimeStamps.get(rank) >= releasedTimeStamps.get(rank - 1));
+            }
+        }
+        assertEquals(count, jitterBuffer.getReleased());
+    }
+
+    @Test
+    public void equalEventTimesKeepArrivalOrder() throws InvalidMidiDataException, InterruptedException {
+        final RtpMidiSessionReceiver session = jitterBuffer.newSession("a");
+        final long eventNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        final MidiMessage[] messages = new MidiMessage[5];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = note(i);
+            jitterBuffer.offer(session, messages[i], eventNanos);
+        }
+
+        final List<MidiMessage> releasedMessages = awaitReleased(messages.length);
+
+        for (int i = 0; i < messages.length; i++) {
+            assertSame(messages[i], releasedMessages.get(i));
+        }
+    }
+
+    @Test
+    public void eventOlderThanTheLastReleasedIsCountedLate() throws InvalidMidiDataException, InterruptedException {
+        final RtpMidiSessionReceiver session = jitterBuffer.newSession("a");
+        final long eventNanos = System.nanoTime();
+        jitterBuffer.offer(session, note(1), eventNanos);
+        awaitReleased(1);
+
+        jitterBuffer.offer(session, note(2), eventNanos - TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(2, awaitReleased(2).size());
+        assertEquals(1, session.getLate());
+    }
+
+    private static MidiMessage note(final int noteNumber) throws InvalidMidiDataException {
+        return new ShortMessage(ShortMessage.NOTE_ON, 0, noteNumber, 100);
+    }
+
+    private List<MidiMessage> awaitReleased(final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            synchronized (released) {
+                if (released.size() >= count) {
+                    return new ArrayList<>(released);
+                }
+            }
+            assertTrue("Released " + released.size() + " of " + count, System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
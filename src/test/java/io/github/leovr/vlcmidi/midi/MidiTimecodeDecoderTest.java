@@ -0,0 +1,87 @@
+package io.github.leovr.vlcmidi.midi;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MidiTimecodeDecoderTest {
+
+    private static final int RATE_24 = 0;
+    private static final int RATE_25 = 1;
+    private static final int RATE_29_97_DROP = 2;
+    private static final double DROP_FRAME_RATE = 30000 / 1001.0;
+
+    private final MidiTimecodeDecoder decoder = new MidiTimecodeDecoder();
+
+    @Test
+    public void decodesFullFrame() {
+        assertEquals(TimeUnit.SECONDS.toNanos(3723) + TimeUnit.MILLISECONDS.toNanos(160),
+                MidiTimecodeDecoder.fullFrame(fullFrame(RATE_25, 1, 2, 3, 4)));
+        assertEquals(TimeUnit.SECONDS.toNanos(10) + TimeUnit.MILLISECONDS.toNanos(500),
+                MidiTimecodeDecoder.fullFrame(fullFrame(RATE_24, 0, 0, 10, 12)));
+    }
+
+    @Test
+    public void rejectsOtherSysex() {
+        assertEquals(MidiTimecodeDecoder.INCOMPLETE, MidiTimecodeDecoder.fullFrame(new byte[]{(byte) 0xF0, 0x7F}));
+        final byte[] deviceInquiry = fullFrame(RATE_25, 0, 0, 1, 0);
+        deviceInquiry[3] = 0x06;
+        assertEquals(MidiTimecodeDecoder.INCOMPLETE, MidiTimecodeDecoder.fullFrame(deviceInquiry));
+    }
+
+    @Test
+    public void quarterFramesAddTheTwoFramesSpentSendingThem() {
+        final int[] pieces = quarterFrames(RATE_25, 0, 0, 1, 10);
+        for (int piece = 0; piece < 7; piece++) {
+            assertEquals(MidiTimecodeDecoder.INCOMPLETE, decoder.quarterFrame(pieces[piece]));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1480), decoder.quarterFrame(pieces[7]));
+    }
+
+    @Test
+    public void partialCycleIsIgnored() {
+        final int[] pieces = quarterFrames(RATE_25, 0, 0, 1, 10);
+        for (int piece = 4; piece < 8; piece++) {
+            assertEquals(MidiTimecodeDecoder.INCOMPLETE, decoder.quarterFrame(pieces[piece]));
+        }
+
+        for (int piece = 0; piece < 7; piece++) {
+            decoder.quarterFrame(pieces[piece]);
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1480), decoder.quarterFrame(pieces[7]));
+    }
+
+    @Test
+    public void dropFrameSkipsTwoFrameNumbersEachMinuteExceptEveryTenth() {
+        final long lastFrameOfMinuteZero = MidiTimecodeDecoder.fullFrame(fullFrame(RATE_29_97_DROP, 0, 0, 59, 29));
+        final long firstFrameOfMinuteOne = MidiTimecodeDecoder.fullFrame(fullFrame(RATE_29_97_DROP, 0, 1, 0, 2));
+
+        assertEquals(frameNanos(1799), lastFrameOfMinuteZero);
+        assertEquals(frameNanos(1800), firstFrameOfMinuteOne);
+        assertEquals(frameNanos(17982), MidiTimecodeDecoder.fullFrame(fullFrame(RATE_29_97_DROP, 0, 10, 0, 0)));
+    }
+
+    private static long frameNanos(final long frameNumber) {
+        return (long) (frameNumber * TimeUnit.SECONDS.toNanos(1) / DROP_FRAME_RATE);
+    }
+
+    private static byte[] fullFrame(final int rateType, final int hours, final int minutes, final int seconds,
+                                    final int frames) {
+        return new byte[]{(byte) 0xF0, 0x7F, 0x7F, 0x01, 0x01, (byte) (rateType << 5 | hours), (byte) minutes,
+                (byte) seconds, (byte) frames, (byte) 0xF7};
+    }
+
+    private static int[] quarterFrames(final int rateType, final int hours, final int minutes, final int seconds,
+                                       final int frames) {
+        final int[] values = new int[]{frames & 0x0F, frames >> 4, seconds & 0x0F, seconds >> 4, minutes & 0x0F,
+                minutes >> 4, hours & 0x0F, rateType << 1 | hours >> 4};
+        final int[] pieces = new int[8];
+        for (int piece = 0; piece < 8; piece++) {
+            pieces[piece] = piece << 4 | values[piece];
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.leovr.vlcmidi.midi;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MidiTimestampClockTest {
+
+    private static final long ARRIVAL_NANOS = TimeUnit.SECONDS.toNanos(100);
+
+    private final MidiTimestampClock clock = new MidiTimestampClock();
+
+    @Test
+    public void messageWithoutTimestampIsScheduledFromArrival() {
+        assertEquals(ARRIVAL_NANOS, clock.toLocalNanos(-1, ARRIVAL_NANOS));
+    }
+
+    @Test
+    public void firstMessageSynchronisesOnArrival() {
+        assertEquals(ARRIVAL_NANOS, clock.toLocalNanos(1_000, ARRIVAL_NANOS));
+        assertEquals(ARRIVAL_NANOS + millis(1), clock.toLocalNanos(2_000, ARRIVAL_NANOS + millis(1)));
+    }
+
+    @Test
+    public void shorterTransitIsAdoptedAtOnce() {
+        clock.toLocalNanos(1_000, ARRIVAL_NANOS);
+
+        assertEquals(ARRIVAL_NANOS + micros(500), clock.toLocalNanos(2_000, ARRIVAL_NANOS + micros(500)));
+        assertEquals(ARRIVAL_NANOS + micros(1_500), clock.toLocalNanos(3_000, ARRIVAL_NANOS + micros(1_500)));
+    }
+
+    @Test
+    public void longerTransitCreepsUpSlowly() {
+        clock.toLocalNanos(1_000, ARRIVAL_NANOS);
+
+        assertEquals(ARRIVAL_NANOS + millis(1) + micros(20),
+                clock.toLocalNanos(2_000, ARRIVAL_NANOS + millis(1) + micros(500)));
+        assertEquals(ARRIVAL_NANOS + millis(2) + micros(40),
+                clock.toLocalNanos(3_000, ARRIVAL_NANOS + millis(2) + micros(500)));
+    }
+
+    @Test
+    public void jumpOfMoreThanASecondResynchronises() {
+        clock.toLocalNanos(1_000, ARRIVAL_NANOS);
+
+        final long arrivalNanos = ARRIVAL_NANOS + TimeUnit.SECONDS.toNanos(5);
+        assertEquals(arrivalNanos, clock.toLocalNanos(2_000, arrivalNanos));
+    }
+
+    @Test
+    public void resetResynchronisesOnTheNextMessage() {
+        clock.toLocalNanos(1_000, ARRIVAL_NANOS);
+        clock.reset();
+
+        assertEquals(ARRIVAL_NANOS + millis(3), clock.toLocalNanos(2_000, ARRIVAL_NANOS + millis(3)));
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static long micros(final long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+}